@@ -0,0 +1,116 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding and deleting tasks and reading the totals of a ConcurrentTimeLogger
+ * with 12 months of 20 days from several threads. Every thread works either
+ * on its own day, which is in its own month, or on the same shared day in its
+ * own quarter hour, so the two results show the cost of a contended stripe.
+ * The readWrite group reads the sum of the shared month without locking,
+ * while another thread changes its tasks.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentTimeLoggerBenchmark {
+
+    private static final int MONTHS_PER_LOGGER = 12;
+    private static final int DAYS_PER_MONTH = 20;
+    private static final int FIRST_FREE_MINUTE = 18 * 60;
+    private static final int SLOT_COUNT = 16;
+    private static final LocalDate SHARED_DAY = LocalDate.of(2016, 1, 1);
+
+    private ConcurrentTimeLogger timeLogger;
+
+    /**
+     * The day and the task of a thread. The threads get different days,
+     * in different months while there are enough months, and different
+     * quarter hours, so their tasks never overlap.
+     */
+    @State(Scope.Thread)
+    public static class ThreadTask {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private LocalDate ownDay;
+        private Task task;
+
+        @Setup
+        public void setUp() throws Exception {
+            int index = THREAD_COUNT.getAndIncrement();
+            ownDay = LocalDate.of(2016, index % MONTHS_PER_LOGGER + 1,
+                    index / MONTHS_PER_LOGGER % DAYS_PER_MONTH + 1);
+            int start = FIRST_FREE_MINUTE + index % SLOT_COUNT * 15;
+            int end = start + 15;
+            task = new Task("LT-" + (2000 + index), null, start / 60, start % 60, end / 60, end % 60);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        TimeLogger logger = new TimeLogger();
+        for (int month = 1; month <= MONTHS_PER_LOGGER; month++) {
+            logger.addMonth(WorkMonthBenchmark.createMonth(2016, month, DAYS_PER_MONTH));
+        }
+        timeLogger = new ConcurrentTimeLogger(logger, ConcurrentTimeLogger.DEFAULT_STRIPE_COUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean addAndDeleteTaskOwnDay(ThreadTask threadTask) {
+        return addAndDelete(threadTask.ownDay, threadTask.task);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean addAndDeleteTaskSharedDay(ThreadTask threadTask) {
+        return addAndDelete(SHARED_DAY, threadTask.task);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long getSumPerMonth() {
+        return timeLogger.getSumPerMonth(YearMonth.from(SHARED_DAY));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public long readWriteGetSumPerMonth() {
+        return timeLogger.getSumPerMonth(YearMonth.from(SHARED_DAY));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean readWriteAddAndDeleteTask(ThreadTask threadTask) {
+        return addAndDelete(SHARED_DAY, threadTask.task);
+    }
+
+    private boolean addAndDelete(LocalDate date, Task task) {
+        timeLogger.tryAddTask(date, task);
+        return timeLogger.deleteTask(date, task);
+    }
+}
@@ -0,0 +1,72 @@
+package timelogger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The instrumented operations with the metrics disabled and enabled.
+ * The disabled results should match the results of the same benchmarks
+ * on a build without the instrumentation, e.g. WorkDayBenchmark.addTasks
+ * with 16 tasks per day.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private static final int TASKS_PER_DAY = 16;
+
+    private List<Task> tasks;
+    private WorkMonth filledMonth;
+
+    @Setup
+    public void setUp() throws Exception {
+        tasks = WorkDayBenchmark.createTasks(TASKS_PER_DAY);
+        filledMonth = WorkMonthBenchmark.createMonth(2016, 10, 20);
+    }
+
+    @Benchmark
+    public WorkDay addTasksMetricsDisabled() throws Exception {
+        return addTasks();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtimelogger.metrics=true")
+    public WorkDay addTasksMetricsEnabled() throws Exception {
+        return addTasks();
+    }
+
+    @Benchmark
+    public long getSumPerMonthMetricsDisabled() {
+        return filledMonth.getSumPerMonth();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtimelogger.metrics=true")
+    public long getSumPerMonthMetricsEnabled() {
+        return filledMonth.getSumPerMonth();
+    }
+
+    private WorkDay addTasks() throws Exception {
+        WorkDay day = new WorkDay(2016, 9, 1);
+        for (Task task : tasks) {
+            day.addTask(task);
+        }
+        return day;
+    }
+}
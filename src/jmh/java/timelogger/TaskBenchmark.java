@@ -0,0 +1,68 @@
+package timelogger;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Task constructors, task id validation and time parsing, each next to
+ * the java.time or regex way, which it replaced.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskBenchmark {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:m");
+
+    @Param({"LT-1234", "1234", "LT-12x4"})
+    public String taskId;
+
+    @Param({"7:30", "13:05"})
+    public String time;
+
+    @Benchmark
+    public Task constructorWithInts() throws Exception {
+        return new Task("LT-1234", "code review", 7, 30, 8, 45);
+    }
+
+    @Benchmark
+    public Task constructorWithStrings() throws Exception {
+        return new Task("LT-1234", "code review", "7:30", "8:45");
+    }
+
+    @Benchmark
+    public boolean validateTaskId() {
+        return TaskIds.isValid(taskId);
+    }
+
+    @Benchmark
+    public boolean validateTaskIdWithRegex() {
+        return taskId.matches("(LT-\\d{4}|\\d{4})");
+    }
+
+    @Benchmark
+    public LocalTime parseTime() {
+        return TimeParser.parse(time);
+    }
+
+    @Benchmark
+    public LocalTime parseTimeWithFormatter() {
+        return LocalTime.parse(time, TIME_FORMAT);
+    }
+}
@@ -0,0 +1,80 @@
+package timelogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Month lookup, the walk of every month and the snapshot load 
+ * of a logger with 20 days of 8 tasks per month.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeLoggerBenchmark {
+
+    private static final int DAYS_PER_MONTH = 20;
+
+    @Param({"12", "60", "120"})
+    public int monthsPerLogger;
+
+    private TimeLogger timeLogger;
+    private YearMonth lastMonth;
+    private Path snapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        timeLogger = new TimeLogger();
+        YearMonth date = YearMonth.of(2010, 1);
+        for (int i = 0; i < monthsPerLogger; i++, date = date.plusMonths(1)) {
+            timeLogger.addMonth(WorkMonthBenchmark.createMonth(
+                    date.getYear(), date.getMonthValue(), DAYS_PER_MONTH));
+            lastMonth = date;
+        }
+        snapshot = Files.createTempFile("timelogger-benchmark", ".snapshot");
+        timeLogger.saveSnapshot(snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public WorkMonth getMonth() {
+        return timeLogger.getMonth(lastMonth);
+    }
+
+    @Benchmark
+    public long sumOfEveryMonth() {
+        long sum = 0;
+        for (WorkMonth month : timeLogger.getMonthsInOrder()) {
+            sum += month.getSumPerMonth();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public TimeLogger loadSnapshot() throws IOException {
+        return TimeLogger.loadSnapshot(snapshot);
+    }
+}
@@ -0,0 +1,89 @@
+package timelogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filling a day with tasks and the overlap check of a new task, 
+ * by the linear scan of Util and by the occupancy index of WorkDay.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkDayBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int tasksPerDay;
+
+    private List<Task> tasks;
+    private WorkDay filledDay;
+    private OccupancyIndex occupancy;
+    private Task candidate;
+
+    @Setup
+    public void setUp() throws Exception {
+        tasks = createTasks(tasksPerDay);
+        filledDay = new WorkDay(2016, 9, 1);
+        occupancy = new OccupancyIndex();
+        for (Task task : createTasks(tasksPerDay)) {
+            filledDay.addTask(task);
+            occupancy.add(task);
+        }
+        candidate = new Task("LT-9999", null, 23, 0, 23, 45);
+    }
+
+    @Benchmark
+    public WorkDay addTasks() throws Exception {
+        WorkDay day = new WorkDay(2016, 9, 1);
+        for (Task task : tasks) {
+            day.addTask(task);
+        }
+        return day;
+    }
+
+    @Benchmark
+    public boolean isSeparatedTimeScan() {
+        return Util.isSeparatedTime(candidate, filledDay.getTasks());
+    }
+
+    @Benchmark
+    public boolean isSeparatedWithOccupancyIndex() {
+        return occupancy.isSeparated(candidate);
+    }
+
+    @Benchmark
+    public long getSumPerDay() {
+        return filledDay.getSumPerDay();
+    }
+
+    /**
+     * Creates the given number of separated quarter hour tasks from midnight on.
+     */
+    static List<Task> createTasks(int count) throws Exception {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = i * 15;
+            int end = start + 15;
+            tasks.add(new Task("LT-" + (1000 + i), "task " + i, 
+                    start / 60, start % 60, end / 60, end % 60));
+        }
+        return tasks;
+    }
+}
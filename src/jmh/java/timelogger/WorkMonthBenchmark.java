@@ -0,0 +1,81 @@
+package timelogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filling a month with days and reading the totals of a filled month.
+ *
+ * @author Dubi
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkMonthBenchmark {
+
+    static final int TASKS_PER_DAY = 8;
+
+    @Param({"5", "20", "31"})
+    public int daysPerMonth;
+
+    private List<WorkDay> days;
+    private WorkMonth filledMonth;
+
+    @Setup
+    public void setUp() throws Exception {
+        days = new ArrayList<>(daysPerMonth);
+        for (int dayOfMonth = 1; dayOfMonth <= daysPerMonth; dayOfMonth++) {
+            days.add(new WorkDay(2016, 10, dayOfMonth));
+        }
+        filledMonth = createMonth(2016, 10, daysPerMonth);
+    }
+
+    @Benchmark
+    public WorkMonth addWorkDays() throws Exception {
+        WorkMonth month = new WorkMonth(2016, 10);
+        for (WorkDay day : days) {
+            month.addWorkDay(day, true);
+        }
+        return month;
+    }
+
+    @Benchmark
+    public long getSumPerMonth() {
+        return filledMonth.getSumPerMonth();
+    }
+
+    @Benchmark
+    public long getExtraMinPerMonth() {
+        return filledMonth.getExtraMinPerMonth();
+    }
+
+    /**
+     * Creates a month with the given number of days, each with TASKS_PER_DAY tasks.
+     */
+    static WorkMonth createMonth(int year, int month, int daysPerMonth) throws Exception {
+        WorkMonth workMonth = new WorkMonth(year, month);
+        for (int dayOfMonth = 1; dayOfMonth <= daysPerMonth; dayOfMonth++) {
+            WorkDay day = new WorkDay(year, month, dayOfMonth);
+            for (Task task : WorkDayBenchmark.createTasks(TASKS_PER_DAY)) {
+                day.addTask(task);
+            }
+            workMonth.addWorkDay(day, true);
+        }
+        return workMonth;
+    }
+}
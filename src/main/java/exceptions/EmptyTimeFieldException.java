@@ -13,4 +13,14 @@ public class EmptyTimeFieldException extends Exception{
     public EmptyTimeFieldException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public EmptyTimeFieldException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
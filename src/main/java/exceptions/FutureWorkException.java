@@ -13,5 +13,15 @@ public class FutureWorkException extends Exception{
     public FutureWorkException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public FutureWorkException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
     
 }
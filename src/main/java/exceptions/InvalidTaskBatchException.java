@@ -0,0 +1,33 @@
+package timelogger.exceptions;
+
+import java.util.Collections;
+import java.util.Map;
+import timelogger.Task;
+
+/**
+ *
+ * @author Dubi
+ */
+public class InvalidTaskBatchException extends Exception{
+
+    private final Map<Task, Exception> rejectedTasks;
+
+    /**
+     *
+     * @param message
+     * @param rejectedTasks the invalid tasks with the reason of rejection
+     */
+    public InvalidTaskBatchException(String message, Map<Task, Exception> rejectedTasks) {
+        super(message);
+        this.rejectedTasks = Collections.unmodifiableMap(rejectedTasks);
+    }
+
+    /**
+     * Returns every rejected task of the batch with the reason of rejection.
+     * @return Map of tasks and exceptions
+     */
+    public Map<Task, Exception> getRejectedTasks() {
+        return rejectedTasks;
+    }
+    
+}
@@ -13,5 +13,15 @@ public class InvalidTaskIdException extends Exception{
     public InvalidTaskIdException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public InvalidTaskIdException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
     
 }
@@ -0,0 +1,33 @@
+package timelogger.exceptions;
+
+import java.util.Collections;
+import java.util.Map;
+import timelogger.WorkDay;
+
+/**
+ *
+ * @author Dubi
+ */
+public class InvalidWorkDayBatchException extends Exception{
+
+    private final Map<WorkDay, Exception> rejectedDays;
+
+    /**
+     *
+     * @param message
+     * @param rejectedDays the invalid days with the reason of rejection
+     */
+    public InvalidWorkDayBatchException(String message, Map<WorkDay, Exception> rejectedDays) {
+        super(message);
+        this.rejectedDays = Collections.unmodifiableMap(rejectedDays);
+    }
+
+    /**
+     * Returns every rejected day of the batch with the reason of rejection.
+     * @return Map of days and exceptions
+     */
+    public Map<WorkDay, Exception> getRejectedDays() {
+        return rejectedDays;
+    }
+    
+}
@@ -13,5 +13,15 @@ public class NegativeMinutesOfWorkException extends Exception{
     public NegativeMinutesOfWorkException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public NegativeMinutesOfWorkException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
     
 }
@@ -13,5 +13,15 @@ public class NoTaskIdException extends Exception{
     public NoTaskIdException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public NoTaskIdException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
     
 }
@@ -12,5 +12,15 @@ public class NotExpectedTimeOrderException extends Exception{
      */
     public NotExpectedTimeOrderException(String message) {
         super(message);
-    }    
+    }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public NotExpectedTimeOrderException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -13,5 +13,15 @@ public class NotNewDateException extends Exception{
     public NotNewDateException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public NotNewDateException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
     
 }
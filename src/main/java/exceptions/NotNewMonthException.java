@@ -13,5 +13,15 @@ public class NotNewMonthException extends Exception{
     public NotNewMonthException(String message) {
         super(message);
     }
+
+    /**
+     * Creates the exception without capturing the stack trace, 
+     * when writableStackTrace is false. Used by the bulk paths.
+     * @param message
+     * @param writableStackTrace
+     */
+    public NotNewMonthException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
         
 }
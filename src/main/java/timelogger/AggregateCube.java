@@ -0,0 +1,214 @@
+package timelogger;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minutes of the tasks per task id and per day, ISO week, month and year,
+ * kept up to date by listening to a TimeLogger.
+ *
+ * Every bucket is a single lookup, a range of months (e.g. a quarter) is
+ * one lookup per month, none of them walks the days. Unfinished tasks
+ * count with 0 minutes until they get their end time.
+ *
+ * @author Dubi
+ */
+public class AggregateCube implements TimeLoggerListener {
+
+    private static final int MONTHS_PER_QUARTER = 3;
+
+    private final LongLongHashMap minutesPerDay = new LongLongHashMap();
+    private final LongLongHashMap minutesPerWeek = new LongLongHashMap();
+    private final LongLongHashMap minutesPerMonth = new LongLongHashMap();
+    private final LongLongHashMap minutesPerYear = new LongLongHashMap();
+    private final LongLongHashMap minutesTotal = new LongLongHashMap();
+    private final Map<String, Integer> uncodedTaskKeys = new HashMap<>();
+
+    private AggregateCube() {
+    }
+
+    /**
+     * Creates a cube of the given TimeLogger, which is kept up to date
+     * on every later change of it. No other thread may change the
+     * TimeLogger, while the cube is being attached.
+     * @param timeLogger
+     * @return AggregateCube
+     */
+    public static AggregateCube attach(TimeLogger timeLogger) {
+        AggregateCube cube = new AggregateCube();
+        timeLogger.getMonthsInOrder().forEach(cube::monthAdded);
+        timeLogger.addListener(cube);
+        return cube;
+    }
+
+    /**
+     * Returns with the minutes of the given task id on the given day.
+     * @param taskId
+     * @param date
+     * @return long
+     */
+    public synchronized long getMinutesPerDay(String taskId, LocalDate date) {
+        return minutesPerDay.get(key(findTaskKey(taskId), dayIndex(date)));
+    }
+
+    /**
+     * Returns with the minutes of the given task id in the ISO week,
+     * which contains the given day.
+     * @param taskId
+     * @param dayOfWeek any day of the week
+     * @return long
+     */
+    public synchronized long getMinutesPerWeek(String taskId, LocalDate dayOfWeek) {
+        return minutesPerWeek.get(key(findTaskKey(taskId), weekIndex(dayOfWeek)));
+    }
+
+    /**
+     * Returns with the minutes of the given task id in the given month.
+     * @param taskId
+     * @param date
+     * @return long
+     */
+    public synchronized long getMinutesPerMonth(String taskId, YearMonth date) {
+        return minutesPerMonth.get(key(findTaskKey(taskId), monthIndex(date)));
+    }
+
+    /**
+     * Returns with the minutes of the given task id in the given quarter.
+     * @param taskId
+     * @param year
+     * @param quarter 1-4
+     * @return long
+     */
+    public long getMinutesPerQuarter(String taskId, int year, int quarter) {
+        if (quarter < 1 || quarter > 4) {
+            throw new IllegalArgumentException("The quarter must be between 1 and 4.");
+        }
+        YearMonth from = YearMonth.of(year, (quarter - 1) * MONTHS_PER_QUARTER + 1);
+        return getMinutesBetween(taskId, from, from.plusMonths(MONTHS_PER_QUARTER - 1));
+    }
+
+    /**
+     * Returns with the minutes of the given task id from the first
+     * to the last given month, both included.
+     * @param taskId
+     * @param from
+     * @param to
+     * @return long
+     */
+    public synchronized long getMinutesBetween(String taskId, YearMonth from, YearMonth to) {
+        int taskKey = findTaskKey(taskId);
+        long sum = 0;
+        for (int month = monthIndex(from); month <= monthIndex(to); month++) {
+            sum += minutesPerMonth.get(key(taskKey, month));
+        }
+        return sum;
+    }
+
+    /**
+     * Returns with the minutes of the given task id in the given year.
+     * @param taskId
+     * @param year
+     * @return long
+     */
+    public synchronized long getMinutesPerYear(String taskId, int year) {
+        return minutesPerYear.get(key(findTaskKey(taskId), year));
+    }
+
+    /**
+     * Returns with all the minutes of the given task id.
+     * @param taskId
+     * @return long
+     */
+    public synchronized long getMinutes(String taskId) {
+        return minutesTotal.get(findTaskKey(taskId));
+    }
+
+    @Override
+    public synchronized void monthAdded(WorkMonth month) {
+        for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+            WorkDay day = month.getDay(dayOfMonth);
+            if (day != null) {
+                workDayAdded(month, day);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void workDayAdded(WorkMonth month, WorkDay day) {
+        for (Task task : day.getTaskList()) {
+            taskAdded(day, task);
+        }
+    }
+
+    @Override
+    public synchronized void taskAdded(WorkDay day, Task task) {
+        add(task.getTaskId(), day.getActualDay(), task.getFinishedMinutes());
+    }
+
+    @Override
+    public synchronized void taskRemoved(WorkDay day, Task task, int index) {
+        add(task.getTaskId(), day.getActualDay(), -task.getFinishedMinutes());
+    }
+
+    @Override
+    public synchronized void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+        add(oldTaskId, day.getActualDay(), -oldMinutes);
+        add(task.getTaskId(), day.getActualDay(), task.getFinishedMinutes());
+    }
+
+    private void add(String taskId, LocalDate date, long minutes) {
+        if (minutes == 0) {
+            return;
+        }
+        int taskKey = taskKey(taskId);
+        minutesPerDay.add(key(taskKey, dayIndex(date)), minutes);
+        minutesPerWeek.add(key(taskKey, weekIndex(date)), minutes);
+        minutesPerMonth.add(key(taskKey, monthIndex(YearMonth.from(date))), minutes);
+        minutesPerYear.add(key(taskKey, date.getYear()), minutes);
+        minutesTotal.add(taskKey, minutes);
+    }
+
+    /**
+     * Returns with the key of the given task id, which is its code for
+     * the valid ids, a new key after the codes for the other ids.
+     */
+    private int taskKey(String taskId) {
+        int code = TaskIds.encode(taskId);
+        if (code != TaskIds.NO_CODE) {
+            return code;
+        }
+        return uncodedTaskKeys.computeIfAbsent(taskId,
+                id -> TaskIds.CODE_COUNT + uncodedTaskKeys.size());
+    }
+
+    /**
+     * Same as taskKey, but does not create a key for an unknown id.
+     */
+    private int findTaskKey(String taskId) {
+        int code = TaskIds.encode(taskId);
+        if (code != TaskIds.NO_CODE) {
+            return code;
+        }
+        return uncodedTaskKeys.getOrDefault(taskId, TaskIds.NO_CODE);
+    }
+
+    private static long key(int taskKey, int periodIndex) {
+        return ((long) taskKey << 32) | (periodIndex & 0xFFFFFFFFL);
+    }
+
+    private static int dayIndex(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static int weekIndex(LocalDate date) {
+        return dayIndex(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+    }
+
+    private static int monthIndex(YearMonth date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+}
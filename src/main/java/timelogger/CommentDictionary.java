@@ -0,0 +1,67 @@
+package timelogger;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Dictionary of task comments. Every distinct comment is stored once
+ * and tasks keep a reference to the shared instance. The entries are
+ * weak, so a comment, which no task refers to anymore, is removed
+ * by the collector. The dictionary is split into stripes by the hash
+ * of the comment, each stripe is locked on its own.
+ *
+ * @author Dubi
+ */
+final class CommentDictionary {
+
+    private static final int STRIPE_COUNT = 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<String, WeakReference<String>>[] STRIPES = new Map[STRIPE_COUNT];
+
+    static {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            STRIPES[i] = new WeakHashMap<>();
+        }
+    }
+
+    private CommentDictionary() {
+    }
+
+    /**
+     * Returns the shared instance of given comment. Unknown comments
+     * become the shared instance.
+     * @param comment
+     * @return String comment or null, if comment is null
+     */
+    static String intern(String comment) {
+        if (comment == null) {
+            return null;
+        }
+        Map<String, WeakReference<String>> stripe = STRIPES[comment.hashCode() & (STRIPE_COUNT - 1)];
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(comment);
+            String shared = reference == null ? null : reference.get();
+            if (shared == null) {
+                shared = comment;
+                stripe.put(shared, new WeakReference<>(shared));
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Returns with the number of comments, which are kept.
+     * @return int
+     */
+    static int size() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> stripe : STRIPES) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,252 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Thread safe access to a TimeLogger with striped locks.
+ *
+ * Adding a month or a day locks the stripe of the month, changing the
+ * tasks of a day locks the stripe of the day, so changes of different
+ * months or days run in parallel. Looking up a day briefly locks the
+ * stripe of its month, so a day is never used before its adding,
+ * including the notification of the listeners, has finished.
+ * Reading the totals takes no lock at all.
+ *
+ * Tasks, which belong to a day, must be changed only inside withDay.
+ * Creating the task ledger locks every stripe, in the order of the stripes.
+ *
+ * @author Dubi
+ */
+public class ConcurrentTimeLogger {
+
+    static final int DEFAULT_STRIPE_COUNT = 64;
+
+    private final TimeLogger timeLogger;
+    private final Object[] stripes;
+    private volatile TaskLedger taskLedger;
+
+    public ConcurrentTimeLogger() {
+        this(new TimeLogger(), DEFAULT_STRIPE_COUNT);
+    }
+
+    public ConcurrentTimeLogger(TimeLogger timeLogger, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("The stripe count must be positive.");
+        }
+        this.timeLogger = timeLogger;
+        this.stripes = new Object[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * An operation on a day, which runs while holding the lock of the day.
+     * @param <T> the type of the result
+     * @param <E> the type of the checked exception
+     */
+    @FunctionalInterface
+    public interface DayOperation<T, E extends Exception> {
+
+        T apply(WorkDay day) throws E;
+    }
+
+    /**
+     * Getter for the underlying TimeLogger.
+     * @return TimeLogger
+     */
+    public TimeLogger getTimeLogger() {
+        return timeLogger;
+    }
+
+    /**
+     * Returns with the ledger of the task ids of the underlying TimeLogger.
+     * The ledger is created on the first call, while holding the lock of
+     * every stripe, so no change is made between reading the existing tasks
+     * and listening to the changes.
+     * @return TaskLedger
+     */
+    public TaskLedger getTaskLedger() {
+        TaskLedger ledger = taskLedger;
+        if (ledger == null) {
+            ledger = withStripesFrom(0, timeLogger::getTaskLedger);
+            taskLedger = ledger;
+        }
+        return ledger;
+    }
+
+    /**
+     * Returns with the month of the given date, adds an empty month first,
+     * if there is no such month yet.
+     * @param date
+     * @return WorkMonth
+     */
+    public WorkMonth getOrAddMonth(YearMonth date) {
+        synchronized (lockOf(date)) {
+            return getOrAddMonthLocked(date);
+        }
+    }
+
+    /**
+     * Adds the given month, if it is new, as an atomic check and insert.
+     * @param workMonth
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddMonth(WorkMonth workMonth) {
+        synchronized (lockOf(workMonth.getDate())) {
+            return timeLogger.tryAddMonth(workMonth);
+        }
+    }
+
+    /**
+     * Adds the given day to its month, adds the month first, if there is
+     * no such month yet. Checking and adding the day is atomic.
+     * @param workDay
+     * @param isWeekendEnabled
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddWorkDay(WorkDay workDay, boolean isWeekendEnabled) {
+        YearMonth date = YearMonth.from(workDay.getActualDay());
+        synchronized (lockOf(date)) {
+            return getOrAddMonthLocked(date).tryAddWorkDay(workDay, isWeekendEnabled);
+        }
+    }
+
+    /**
+     * Adds the given task to the day of the given date.
+     * Checking and adding the task is atomic.
+     * @param date
+     * @param task
+     * @throws IllegalArgumentException If there is no day on the given date.
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddTask(LocalDate date, Task task) {
+        return withDay(date, day -> day.tryAddTask(task));
+    }
+
+    /**
+     * Deletes the given task from the day of the given date.
+     * @param date
+     * @param task
+     * @throws IllegalArgumentException If there is no day on the given date.
+     * @return Boolean true, if the task was deleted
+     */
+    public boolean deleteTask(LocalDate date, Task task) {
+        return withDay(date, day -> {
+            int numberOfTasks = day.getTaskList().size();
+            return day.deleteTask(task).size() < numberOfTasks;
+        });
+    }
+
+    /**
+     * Returns with a copy of the tasks of the day of the given date.
+     * @param date
+     * @throws IllegalArgumentException If there is no day on the given date.
+     * @return List of tasks
+     */
+    public List<Task> getTasks(LocalDate date) {
+        return withDay(date, day -> new ArrayList<>(day.getTaskList()));
+    }
+
+    /**
+     * Runs the given operation on the day of the given date,
+     * while holding the lock of the day.
+     * @param <T>
+     * @param <E>
+     * @param date
+     * @param operation
+     * @throws IllegalArgumentException If there is no day on the given date.
+     * @return T the result of the operation
+     * @throws E the exception of the operation
+     */
+    public <T, E extends Exception> T withDay(LocalDate date, DayOperation<T, E> operation) throws E {
+        WorkDay day = findDay(date);
+        if (day == null) {
+            throw new IllegalArgumentException("There is no day on " + date + ".");
+        }
+        synchronized (lockOf(date)) {
+            return operation.apply(day);
+        }
+    }
+
+    /**
+     * Returns with the sum of the month of the given date, without locking.
+     * @param date
+     * @return long or 0, if there is no such month
+     */
+    public long getSumPerMonth(YearMonth date) {
+        WorkMonth month = timeLogger.getMonth(date);
+        return month == null ? 0 : month.getSumPerMonth();
+    }
+
+    /**
+     * Returns with the overtime of the month of the given date, without locking.
+     * @param date
+     * @return long or 0, if there is no such month
+     */
+    public long getExtraMinPerMonth(YearMonth date) {
+        WorkMonth month = timeLogger.getMonth(date);
+        return month == null ? 0 : month.getExtraMinPerMonth();
+    }
+
+    /**
+     * Returns with the sum of the day of the given date, without locking.
+     * @param date
+     * @return long or 0, if there is no such day
+     */
+    public long getSumPerDay(LocalDate date) {
+        WorkMonth month = timeLogger.getMonth(YearMonth.from(date));
+        WorkDay day = month == null ? null : month.getDay(date.getDayOfMonth());
+        return day == null || !day.getActualDay().equals(date) ? 0 : day.getSumPerDay();
+    }
+
+    private WorkMonth getOrAddMonthLocked(YearMonth date) {
+        WorkMonth month = timeLogger.getMonth(date);
+        if (month == null) {
+            month = new WorkMonth(date.getYear(), date.getMonthValue());
+            timeLogger.tryAddMonth(month);
+        }
+        return month;
+    }
+
+    private WorkDay findDay(LocalDate date) {
+        YearMonth monthDate = YearMonth.from(date);
+        synchronized (lockOf(monthDate)) {
+            WorkMonth month = timeLogger.getMonth(monthDate);
+            WorkDay day = month == null ? null : month.getDay(date.getDayOfMonth());
+            return day != null && day.getActualDay().equals(date) ? day : null;
+        }
+    }
+
+    /**
+     * Runs the given action while holding the locks of the stripes from the given one on.
+     */
+    private <T> T withStripesFrom(int stripe, Supplier<T> action) {
+        if (stripe == stripes.length) {
+            return action.get();
+        }
+        synchronized (stripes[stripe]) {
+            return withStripesFrom(stripe + 1, action);
+        }
+    }
+
+    private Object lockOf(YearMonth date) {
+        return stripes[Math.floorMod(mix(date.getYear() * 12 + date.getMonthValue()), stripes.length)];
+    }
+
+    private Object lockOf(LocalDate date) {
+        return stripes[Math.floorMod(mix((int) date.toEpochDay()), stripes.length)];
+    }
+
+    /**
+     * Spreads consecutive months and days over the stripes.
+     */
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,366 @@
+package timelogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import timelogger.exceptions.EmptyTimeFieldException;
+import timelogger.exceptions.InvalidTaskIdException;
+import timelogger.exceptions.NoTaskIdException;
+import timelogger.exceptions.NotExpectedTimeOrderException;
+
+/**
+ * Streaming importer of CSV timesheets with the columns
+ * date,taskId,comment,startTime,endTime,requiredMinPerDay
+ * e.g. 2016-09-01,LT-1234,"code review, part 1",7:30,8:45,450
+ * 
+ * Rows are read one by one and handed over through bounded queues to 
+ * workers, each worker owns a disjoint set of months. Missing months and 
+ * days are created with the usual validation rules, the required minutes 
+ * of a day are taken from its first row (empty means 450).
+ * Quoted fields may contain commas and "" but no line breaks.
+ *
+ * @author Dubi
+ */
+public class CsvImporter {
+
+    private static final int FIELD_COUNT = 6;
+    private static final long DEFAULT_REQUIRED_MIN_PER_DAY = 450;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Row END_OF_INPUT = new Row(0, null, null);
+
+    private final TimeLogger timeLogger;
+    private final boolean isWeekendEnabled;
+    private final int workerCount;
+    private final int queueCapacity;
+
+    public CsvImporter(TimeLogger timeLogger) {
+        this(timeLogger, true, Runtime.getRuntime().availableProcessors(), 
+                DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public CsvImporter(TimeLogger timeLogger, boolean isWeekendEnabled, 
+            int workerCount, int queueCapacity) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Worker count and queue capacity must be positive.");
+        }
+        this.timeLogger = timeLogger;
+        this.isWeekendEnabled = isWeekendEnabled;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Imports the given CSV file.
+     * @param path
+     * @return ImportReport
+     * @throws IOException
+     * @throws InterruptedException 
+     */
+    public ImportReport importFrom(Path path) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            return importFrom(reader);
+        }
+    }
+
+    /**
+     * Imports the rows of the given reader. An optional header row, 
+     * which starts with "date", and blank lines are skipped.
+     * @param input
+     * @return ImportReport
+     * @throws IOException
+     * @throws InterruptedException 
+     */
+    public ImportReport importFrom(Reader input) throws IOException, InterruptedException {
+        long startNanos = System.nanoTime();
+        BufferedReader reader = input instanceof BufferedReader 
+                ? (BufferedReader) input : new BufferedReader(input);
+        ErrorLog readErrors = new ErrorLog();
+        List<Worker> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Worker worker = new Worker(new ArrayBlockingQueue<>(queueCapacity));
+            workers.add(worker);
+            worker.start();
+        }
+
+        long lineNumber = 0;
+        long rowCount = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                rowCount++;
+                try {
+                    Row row = parseRow(lineNumber, line);
+                    workers.get(Math.floorMod(row.month.hashCode(), workerCount))
+                            .queue.put(row);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    readErrors.add(lineNumber, e.getMessage());
+                }
+            }
+        } finally {
+            for (Worker worker : workers) {
+                worker.queue.put(END_OF_INPUT);
+            }
+            for (Worker worker : workers) {
+                worker.join();
+            }
+        }
+
+        long importedRowCount = 0;
+        long errorCount = readErrors.count;
+        List<ImportReport.RowError> errors = new ArrayList<>(readErrors.errors);
+        for (Worker worker : workers) {
+            importedRowCount += worker.importedRowCount;
+            errorCount += worker.errors.count;
+            errors.addAll(worker.errors.errors);
+        }
+        errors.sort(Comparator.comparingLong(ImportReport.RowError::getLineNumber));
+        if (errors.size() > MAX_REPORTED_ERRORS) {
+            errors = new ArrayList<>(errors.subList(0, MAX_REPORTED_ERRORS));
+        }
+        return new ImportReport(rowCount, importedRowCount, errorCount, errors, 
+                System.nanoTime() - startNanos);
+    }
+
+    private static boolean isHeader(String line) {
+        return line.regionMatches(true, 0, "date", 0, 4);
+    }
+
+    /**
+     * Splits the line into fields and parses the date of the row.
+     * @param lineNumber
+     * @param line
+     * @return Row
+     * @throws IllegalArgumentException If the row has not the expected fields.
+     * @throws DateTimeParseException If the date is not valid.
+     */
+    private static Row parseRow(long lineNumber, String line) {
+        String[] fields = splitLine(line);
+        return new Row(lineNumber, LocalDate.parse(fields[0].trim()), fields);
+    }
+
+    /**
+     * Splits a CSV line into exactly FIELD_COUNT fields.
+     * @param line
+     * @return String[] fields
+     * @throws IllegalArgumentException If the number of fields differs.
+     */
+    static String[] splitLine(String line) {
+        String[] fields = new String[FIELD_COUNT];
+        StringBuilder field = new StringBuilder();
+        int fieldIndex = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (fieldIndex == FIELD_COUNT - 1) {
+                    throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields.");
+                }
+                fields[fieldIndex++] = field.toString();
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted || fieldIndex != FIELD_COUNT - 1) {
+            throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields.");
+        }
+        fields[fieldIndex] = field.toString();
+        return fields;
+    }
+
+    /**
+     * Returns the month of given date from the time logger, 
+     * creates it, if it does not exist yet.
+     * @param date
+     * @return WorkMonth
+     */
+    private WorkMonth getOrCreateMonth(YearMonth date) {
+        synchronized (timeLogger) {
+            WorkMonth month = timeLogger.getMonth(date);
+            if (month == null) {
+                month = new WorkMonth(date.getYear(), date.getMonthValue());
+                timeLogger.tryAddMonth(month);
+            }
+            return month;
+        }
+    }
+
+    /**
+     * A parsed row of the input.
+     */
+    private static class Row {
+
+        private final long lineNumber;
+        private final LocalDate date;
+        private final YearMonth month;
+        private final String[] fields;
+
+        Row(long lineNumber, LocalDate date, String[] fields) {
+            this.lineNumber = lineNumber;
+            this.date = date;
+            this.month = date == null ? null : YearMonth.from(date);
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Counts the errors and keeps the first MAX_REPORTED_ERRORS of them.
+     */
+    private static class ErrorLog {
+
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long count;
+
+        void add(long lineNumber, String message) {
+            count++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(lineNumber, message));
+            }
+        }
+    }
+
+    /**
+     * Adds the rows of its queue to the time logger.
+     * Only this worker touches the months, which are routed to it.
+     * The months are cached by the worker, unless the TimeLogger keeps
+     * them in segments: a segmented month may be dropped from memory by
+     * any lookup, so it is looked up for every row, and the row is added
+     * under the same lock, which the lookups of the other workers take.
+     */
+    private class Worker extends Thread {
+
+        private final BlockingQueue<Row> queue;
+        private final Map<YearMonth, WorkMonth> months = new HashMap<>();
+        private final ErrorLog errors = new ErrorLog();
+        private long importedRowCount;
+
+        Worker(BlockingQueue<Row> queue) {
+            super("csv-import-worker");
+            setDaemon(true);
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Row row;
+                try {
+                    row = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (row == END_OF_INPUT) {
+                    return;
+                }
+                try {
+                    String error = importRow(row);
+                    if (error == null) {
+                        importedRowCount++;
+                    } else {
+                        errors.add(row.lineNumber, error);
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    errors.add(row.lineNumber, e.getMessage());
+                } catch (RuntimeException e) {
+                    errors.add(row.lineNumber, e.toString());
+                }
+            }
+        }
+
+        /**
+         * Adds the task of the row to its day, adds the day first, if it 
+         * does not exist yet. Invalid rows are reported by their 
+         * ValidationResult, without throwing any exception.
+         * @param row
+         * @return String error message or null, if the row was imported
+         */
+        private String importRow(Row row) {
+            String[] fields = row.fields;
+            String taskId = fields[1].trim();
+            ValidationResult result = Task.validateTaskId(taskId);
+            if (!result.isValid()) {
+                return result.getMessage();
+            }
+            LocalTime startTime = fields[3].isBlank() ? null : TimeParser.parse(fields[3].trim());
+            LocalTime endTime = fields[4].isBlank() ? null : TimeParser.parse(fields[4].trim());
+            result = Task.validateTimes(startTime, endTime);
+            if (!result.isValid()) {
+                return result.getMessage();
+            }
+
+            if (timeLogger.getSegmentStore() == null) {
+                return addTask(row, months.computeIfAbsent(row.month, CsvImporter.this::getOrCreateMonth), 
+                        taskId, startTime, endTime);
+            }
+            synchronized (timeLogger) {
+                return addTask(row, getOrCreateMonth(row.month), taskId, startTime, endTime);
+            }
+        }
+
+        /**
+         * Adds the already validated task of the row to its day in the given month.
+         * @param row
+         * @param month
+         * @param taskId
+         * @param startTime
+         * @param endTime
+         * @return String error message or null, if the row was imported
+         */
+        private String addTask(Row row, WorkMonth month, String taskId, LocalTime startTime, LocalTime endTime) {
+            ValidationResult result;
+            WorkDay day = month.getDay(row.date.getDayOfMonth());
+            if (day == null) {
+                long requiredMinPerDay = row.fields[5].isBlank() 
+                        ? DEFAULT_REQUIRED_MIN_PER_DAY : Long.parseLong(row.fields[5].trim());
+                result = WorkDay.validateRequiredMinPerDay(requiredMinPerDay);
+                if (!result.isValid()) {
+                    return result.getMessage();
+                }
+                day = new WorkDay(row.date, requiredMinPerDay);
+                result = month.tryAddWorkDay(day, isWeekendEnabled);
+                if (!result.isValid()) {
+                    return result.getMessage();
+                }
+            }
+            Task task;
+            try {
+                task = new Task(taskId, row.fields[2], startTime.getHour(), startTime.getMinute(), 
+                        endTime.getHour(), endTime.getMinute());
+            } catch (NotExpectedTimeOrderException | InvalidTaskIdException 
+                    | NoTaskIdException | EmptyTimeFieldException e) {
+                return e.getMessage();
+            }
+            result = day.tryAddTask(task);
+            return result.isValid() ? null : result.getMessage();
+        }
+    }
+}
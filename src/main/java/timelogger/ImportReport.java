@@ -0,0 +1,70 @@
+package timelogger;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Result of a CsvImporter run.
+ *
+ * @author Dubi
+ */
+@Getter
+public class ImportReport {
+
+    private final long rowCount;
+    private final long importedRowCount;
+    private final long errorCount;
+    private final List<RowError> errors;
+    private final long elapsedNanos;
+
+    public ImportReport(long rowCount, long importedRowCount, long errorCount, 
+            List<RowError> errors, long elapsedNanos) {
+        this.rowCount = rowCount;
+        this.importedRowCount = importedRowCount;
+        this.errorCount = errorCount;
+        this.errors = Collections.unmodifiableList(errors);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the throughput of the import.
+     * @return double rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowCount * 1_000_000_000d / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" + "rowCount=" + rowCount + ", importedRowCount=" + importedRowCount 
+                + ", errorCount=" + errorCount + ", rowsPerSecond=" + (long) getRowsPerSecond() + '}';
+    }
+
+    /**
+     * An error of a single row of the input.
+     */
+    public static class RowError {
+
+        private final long lineNumber;
+        private final String message;
+
+        public RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + message;
+        }
+    }
+}
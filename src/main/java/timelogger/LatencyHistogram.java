@@ -0,0 +1,84 @@
+package timelogger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with power of two buckets.
+ * Bucket i counts the latencies below 2^i and not below 2^(i-1), so
+ * recording is a leading zero count and an atomic increment, and a
+ * percentile is accurate to a factor of two.
+ *
+ * @author Dubi
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given latency. Negative latencies are recorded as 0.
+     * @param nanos
+     */
+    void record(long nanos) {
+        long latency = Math.max(nanos, 0);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latency));
+        count.incrementAndGet();
+        if (latency > max.get()) {
+            max.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Returns with the number of recorded latencies.
+     * @return long
+     */
+    long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns with the largest recorded latency.
+     * @return long nanos or 0, if nothing was recorded
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns with the upper bound of the bucket of the given percentile,
+     * but at most the largest recorded latency.
+     * @param percent 0-100
+     * @return long nanos or 0, if nothing was recorded
+     */
+    long getPercentile(double percent) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percent / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 0 : i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Removes every recorded latency.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+}
@@ -0,0 +1,56 @@
+package timelogger;
+
+import java.io.PrintWriter;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Prints the numbered listings of the TimeLoggerUI in a single pass
+ * over the items, page by page.
+ *
+ * @author Dubi
+ */
+class ListingRenderer {
+
+    static final int NO_PAGING = 0;
+
+    private final PrintWriter out;
+    private final int pageSize;
+    private final BooleanSupplier nextPage;
+
+    /**
+     * @param out
+     * @param pageSize number of items per page or NO_PAGING
+     * @param nextPage called after each full page, returns false to stop the listing
+     */
+    ListingRenderer(PrintWriter out, int pageSize, BooleanSupplier nextPage) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("The page size cannot be negative.");
+        }
+        this.out = out;
+        this.pageSize = pageSize;
+        this.nextPage = nextPage;
+    }
+
+    /**
+     * Prints the items numbered from 1, one item per line.
+     * @param <T>
+     * @param items
+     * @param formatter
+     * @return int the number of printed items
+     */
+    <T> int render(Iterable<T> items, Function<? super T, String> formatter) {
+        int number = 0;
+        for (T item : items) {
+            if (pageSize != NO_PAGING && number > 0 && number % pageSize == 0 
+                    && !nextPage.getAsBoolean()) {
+                break;
+            }
+            number++;
+            out.print(number);
+            out.print(". ");
+            out.println(formatter.apply(item));
+        }
+        return number;
+    }
+}
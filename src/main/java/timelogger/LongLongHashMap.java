@@ -0,0 +1,135 @@
+package timelogger;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to long values, without boxing.
+ * Missing keys read as 0, and a key, whose value gets back to 0,
+ * is removed, so the map only holds the non-zero values.
+ *
+ * @author Dubi
+ */
+final class LongLongHashMap {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_LOAD_PERCENT = 70;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    LongLongHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns with the value of the given key.
+     * @param key
+     * @return long or 0, if there is no such key
+     */
+    long get(long key) {
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the given delta to the value of the given key.
+     * @param key
+     * @param delta
+     */
+    void add(long key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        int slot = slotOf(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                if (values[slot] == 0) {
+                    removeSlot(slot);
+                }
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 100 > keys.length * MAX_LOAD_PERCENT) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Returns with the number of keys.
+     * @return int
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key.
+     */
+    void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Removes the given slot, and moves the following entries of its
+     * probe sequence back, so every key stays reachable from its home slot.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (used[next]) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[free] = false;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & (keys.length - 1);
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+}
@@ -0,0 +1,50 @@
+package timelogger;
+
+import java.time.LocalTime;
+
+/**
+ * Conversions between LocalTime and minute of day values, 
+ * which are used as the compact form of times.
+ *
+ * @author Dubi
+ */
+final class MinuteOfDay {
+
+    static final short NONE = -1;
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final LocalTime[] TIMES = new LocalTime[MINUTES_PER_DAY];
+
+    static {
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            TIMES[minute] = LocalTime.of(minute / 60, minute % 60);
+        }
+    }
+
+    private MinuteOfDay() {
+    }
+
+    /**
+     * Returns the minute of day of given time. Seconds are truncated.
+     * @param time
+     * @return short minute of day or NONE, if time is null
+     */
+    static short of(LocalTime time) {
+        if (time == null) {
+            return NONE;
+        }
+        return (short) (time.getHour() * 60 + time.getMinute());
+    }
+
+    /**
+     * Returns the shared LocalTime instance of given minute of day.
+     * @param minute
+     * @return LocalTime or null, if minute is NONE
+     */
+    static LocalTime toLocalTime(int minute) {
+        if (minute == NONE) {
+            return null;
+        }
+        return TIMES[minute];
+    }
+}
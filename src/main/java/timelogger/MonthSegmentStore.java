@@ -0,0 +1,288 @@
+package timelogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Months of a TimeLogger, each kept in its own segment file of a directory.
+ *
+ * Only the dates of the months are kept in memory for good, a month itself
+ * is read from its segment on the first access and kept in a cache of the
+ * least recently used months. When the cache is full, the least recently
+ * used month is dropped, after it was written back, if it was changed.
+ * A segment is a snapshot of TimeLoggerSnapshot with a single month.
+ *
+ * The changed months are tracked by listening to the TimeLogger, so a
+ * dropped month is detached from it, and later changes of the dropped
+ * instance are neither seen by the listeners nor saved.
+ *
+ * @author Dubi
+ */
+final class MonthSegmentStore implements TimeLoggerListener {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("month-(\\d{4}-\\d{2})\\.seg");
+
+    private final Path directory;
+    private final TimeLogger timeLogger;
+    private final int maxLoadedMonths;
+    private final NavigableSet<YearMonth> dates = new TreeSet<>();
+    private final List<YearMonth> datesInAddOrder = new ArrayList<>();
+    private final Map<YearMonth, WorkMonth> loadedMonths = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<YearMonth> changedMonths = new HashSet<>();
+    private long loadCount;
+    private long evictionCount;
+    private long writeCount;
+
+    private MonthSegmentStore(Path directory, TimeLogger timeLogger, int maxLoadedMonths) {
+        this.directory = directory;
+        this.timeLogger = timeLogger;
+        this.maxLoadedMonths = maxLoadedMonths;
+    }
+
+    /**
+     * Opens the segments of the given directory, which is created, if it
+     * does not exist. Only the names of the segments are read.
+     * @param directory
+     * @param timeLogger the TimeLogger, which holds the months
+     * @param maxLoadedMonths the maximum number of months in memory
+     * @throws IllegalArgumentException If maxLoadedMonths is less than 1.
+     * @return MonthSegmentStore
+     * @throws IOException If the directory can not be read.
+     */
+    static MonthSegmentStore open(Path directory, TimeLogger timeLogger, int maxLoadedMonths)
+            throws IOException {
+        if (maxLoadedMonths < 1) {
+            throw new IllegalArgumentException("At least one month must be kept in memory.");
+        }
+        MonthSegmentStore store = new MonthSegmentStore(directory, timeLogger, maxLoadedMonths);
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory)) {
+            for (Path segment : segments) {
+                Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+                if (matcher.matches()) {
+                    try {
+                        store.dates.add(YearMonth.parse(matcher.group(1)));
+                    } catch (DateTimeParseException e) {
+                        throw new IOException("Invalid segment name: " + segment, e);
+                    }
+                }
+            }
+        }
+        store.datesInAddOrder.addAll(store.dates);
+        return store;
+    }
+
+    /**
+     * Checks if there is a month with the given date, without loading it.
+     * @param date
+     * @return Boolean
+     */
+    synchronized boolean contains(YearMonth date) {
+        return dates.contains(date);
+    }
+
+    /**
+     * Returns with the number of months.
+     * @return int
+     */
+    synchronized int size() {
+        return datesInAddOrder.size();
+    }
+
+    /**
+     * Returns with the date of the month at the given index, in the order
+     * of adding, the months of the directory first in chronological order.
+     * @param index
+     * @return YearMonth
+     */
+    synchronized YearMonth dateAt(int index) {
+        return datesInAddOrder.get(index);
+    }
+
+    /**
+     * Returns with the dates of the months from the first to the last
+     * given month, both included, in chronological order.
+     * @param from
+     * @param to
+     * @return List of dates, a copy
+     */
+    synchronized List<YearMonth> datesBetween(YearMonth from, YearMonth to) {
+        return new ArrayList<>(dates.subSet(from, true, to, true));
+    }
+
+    /**
+     * Returns with the dates of every month in chronological order.
+     * @return List of dates, a copy
+     */
+    synchronized List<YearMonth> datesInOrder() {
+        return new ArrayList<>(dates);
+    }
+
+    /**
+     * Returns with the month of the given date, which is read from its
+     * segment, if it is not in memory.
+     * @param date
+     * @throws UncheckedIOException If the segment can not be read,
+     * or a changed month can not be written back.
+     * @return WorkMonth or null, if there is no such month
+     */
+    synchronized WorkMonth get(YearMonth date) {
+        WorkMonth month = loadedMonths.get(date);
+        if (month != null || !dates.contains(date)) {
+            return month;
+        }
+        try {
+            month = load(date);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        month.setTimeLogger(timeLogger);
+        loadedMonths.put(date, month);
+        evict();
+        return month;
+    }
+
+    /**
+     * Adds the given month, if it is new. The month is written into its
+     * segment on flush or when it is dropped from memory.
+     * @param month
+     * @throws UncheckedIOException If a changed month can not be written back.
+     * @return Boolean true, if the month was added
+     */
+    synchronized boolean add(WorkMonth month) {
+        if (!dates.add(month.getDate())) {
+            return false;
+        }
+        datesInAddOrder.add(month.getDate());
+        changedMonths.add(month.getDate());
+        month.setTimeLogger(timeLogger);
+        loadedMonths.put(month.getDate(), month);
+        evict();
+        return true;
+    }
+
+    /**
+     * Writes every changed month into its segment.
+     * @throws IOException
+     */
+    synchronized void flush() throws IOException {
+        for (Iterator<YearMonth> it = changedMonths.iterator(); it.hasNext();) {
+            write(loadedMonths.get(it.next()));
+            it.remove();
+        }
+    }
+
+    synchronized int getLoadedMonthCount() {
+        return loadedMonths.size();
+    }
+
+    synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    @Override
+    public void monthAdded(WorkMonth month) {
+        markChanged(month);
+    }
+
+    @Override
+    public void monthSealed(WorkMonth month) {
+        markChanged(month);
+    }
+
+    @Override
+    public void workDayAdded(WorkMonth month, WorkDay day) {
+        markChanged(month);
+    }
+
+    @Override
+    public void workDayChanged(WorkDay day, long oldRequiredMinPerDay) {
+        markChanged(day.getWorkMonth());
+    }
+
+    @Override
+    public void taskAdded(WorkDay day, Task task) {
+        markChanged(day.getWorkMonth());
+    }
+
+    @Override
+    public void taskRemoved(WorkDay day, Task task, int index) {
+        markChanged(day.getWorkMonth());
+    }
+
+    @Override
+    public void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+        markChanged(day.getWorkMonth());
+    }
+
+    private synchronized void markChanged(WorkMonth month) {
+        if (month != null && loadedMonths.get(month.getDate()) == month) {
+            changedMonths.add(month.getDate());
+        }
+    }
+
+    /**
+     * Drops the least recently used months, until the cache is not over its size.
+     */
+    private void evict() {
+        Iterator<WorkMonth> it = loadedMonths.values().iterator();
+        while (loadedMonths.size() > maxLoadedMonths) {
+            WorkMonth month = it.next();
+            if (changedMonths.remove(month.getDate())) {
+                try {
+                    write(month);
+                } catch (IOException e) {
+                    changedMonths.add(month.getDate());
+                    throw new UncheckedIOException(e);
+                }
+            }
+            it.remove();
+            month.setTimeLogger(null);
+            evictionCount++;
+        }
+    }
+
+    private WorkMonth load(YearMonth date) throws IOException {
+        Path segment = segmentOf(date);
+        List<WorkMonth> months = TimeLoggerSnapshot.readMonths(segment);
+        if (months.size() != 1 || !months.get(0).getDate().equals(date)) {
+            throw new IOException("The segment does not hold the month " + date + ": " + segment);
+        }
+        loadCount++;
+        return months.get(0);
+    }
+
+    private void write(WorkMonth month) throws IOException {
+        TimeLoggerSnapshot.write(Collections.singletonList(month), segmentOf(month.getDate()));
+        writeCount++;
+    }
+
+    private Path segmentOf(YearMonth date) {
+        return directory.resolve("month-" + date + ".seg");
+    }
+}
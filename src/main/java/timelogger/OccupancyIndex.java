@@ -0,0 +1,100 @@
+package timelogger;
+
+import java.util.Arrays;
+
+/**
+ * Minute resolution bitmap of the occupied time of a day, packed into longs.
+ * A task covers the minutes [startTime, endTime), a task with zero length
+ * covers the single minute of its startTime. With this rule two tasks are
+ * separated exactly when Util.isSeparatedTime says so.
+ *
+ * @author Dubi
+ */
+class OccupancyIndex {
+
+    private static final int BITS_PER_WORD = 64;
+
+    private final long[] words = new long[
+            (MinuteOfDay.MINUTES_PER_DAY + BITS_PER_WORD - 1) / BITS_PER_WORD];
+
+    /**
+     * Checks if the given task does not overlap with any indexed task.
+     * @param task
+     * @return Boolean
+     */
+    boolean isSeparated(Task task) {
+        int from = task.getStartMinute();
+        return !isAnySet(from, coveredUntil(from, task.getEndMinute()));
+    }
+
+    /**
+     * Marks the minutes of the given task as occupied.
+     * Tasks without start or end time do not occupy anything.
+     * @param task
+     */
+    void add(Task task) {
+        if (task.getStartMinute() == MinuteOfDay.NONE 
+                || task.getEndMinute() == MinuteOfDay.NONE) {
+            return;
+        }
+        int from = task.getStartMinute();
+        setRange(from, coveredUntil(from, task.getEndMinute()));
+    }
+
+    /**
+     * Clears the index and marks the minutes of all the given tasks.
+     * @param tasks
+     */
+    void rebuild(Iterable<Task> tasks) {
+        Arrays.fill(words, 0L);
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Returns an independent copy of this index.
+     * @return OccupancyIndex
+     */
+    OccupancyIndex copy() {
+        OccupancyIndex copy = new OccupancyIndex();
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    private static int coveredUntil(int from, int to) {
+        return Math.min(Math.max(to, from + 1), MinuteOfDay.MINUTES_PER_DAY);
+    }
+
+    private boolean isAnySet(int from, int to) {
+        int firstWord = from / BITS_PER_WORD;
+        int lastWord = (to - 1) / BITS_PER_WORD;
+        for (int i = firstWord; i <= lastWord; i++) {
+            if ((words[i] & mask(i, from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void setRange(int from, int to) {
+        int firstWord = from / BITS_PER_WORD;
+        int lastWord = (to - 1) / BITS_PER_WORD;
+        for (int i = firstWord; i <= lastWord; i++) {
+            words[i] |= mask(i, from, to);
+        }
+    }
+
+    /**
+     * Returns the bits of word i, which fall into the range [from, to).
+     */
+    private static long mask(int i, int from, int to) {
+        int wordStart = i * BITS_PER_WORD;
+        long mask = -1L;
+        if (from > wordStart) {
+            mask &= -1L << (from - wordStart);
+        }
+        if (to < wordStart + BITS_PER_WORD) {
+            mask &= -1L >>> (wordStart + BITS_PER_WORD - to);
+        }
+        return mask;
+    }
+}
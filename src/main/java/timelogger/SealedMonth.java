@@ -0,0 +1,159 @@
+package timelogger;
+
+import java.lang.ref.SoftReference;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Packed, read-only form of the days and tasks of a sealed WorkMonth.
+ *
+ * The days and tasks are kept in parallel primitive arrays, the tasks of
+ * a day are the range firstTasks[i] to firstTasks[i + 1] of the task arrays.
+ * The ids are kept as their codes, only the ids, which have no code, are
+ * kept as strings. The comments are the shared instances of CommentDictionary. The sums of the days are computed once.
+ * A WorkDay is created from the arrays on its first lookup, and kept
+ * through a soft reference, so the repeated lookups of a day return the
+ * same object, until the collector needs its memory.
+ *
+ * @author Dubi
+ */
+final class SealedMonth {
+
+    private static final byte NO_DAY = -1;
+
+    private final YearMonth date;
+    private final byte[] dayIndexes = new byte[WorkMonth.MAX_DAYS_PER_MONTH];
+    private final long[] requiredMinPerDay;
+    private final long[] sumPerDay;
+    private final int[] firstTasks;
+    private final int[] taskIdCodes;
+    private final String[] comments;
+    private final short[] startMinutes;
+    private final short[] endMinutes;
+    private final String[] uncodedTaskIds;
+    private final AtomicReferenceArray<SoftReference<WorkDay>> createdDays;
+
+    /**
+     * Packs the days and tasks of the given month.
+     * @param month
+     */
+    SealedMonth(WorkMonth month) {
+        this.date = month.getDate();
+        int dayCount = 0;
+        int taskCount = 0;
+        boolean hasUncodedTaskId = false;
+        for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+            WorkDay day = month.getDay(dayOfMonth);
+            if (day != null) {
+                dayCount++;
+                taskCount += day.getTaskList().size();
+                for (Task task : day.getTaskList()) {
+                    hasUncodedTaskId |= task.getTaskIdCode() == TaskIds.NO_CODE && task.getTaskId() != null;
+                }
+            }
+        }
+        requiredMinPerDay = new long[dayCount];
+        sumPerDay = new long[dayCount];
+        firstTasks = new int[dayCount + 1];
+        taskIdCodes = new int[taskCount];
+        comments = new String[taskCount];
+        startMinutes = new short[taskCount];
+        endMinutes = new short[taskCount];
+        uncodedTaskIds = hasUncodedTaskId ? new String[taskCount] : null;
+        createdDays = new AtomicReferenceArray<>(dayCount);
+
+        int dayIndex = 0;
+        int taskIndex = 0;
+        for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+            WorkDay day = month.getDay(dayOfMonth);
+            if (day == null) {
+                dayIndexes[dayOfMonth - 1] = NO_DAY;
+                continue;
+            }
+            dayIndexes[dayOfMonth - 1] = (byte) dayIndex;
+            requiredMinPerDay[dayIndex] = day.getRequiredMinPerday();
+            sumPerDay[dayIndex] = day.getSumPerDay();
+            firstTasks[dayIndex] = taskIndex;
+            for (Task task : day.getTaskList()) {
+                taskIdCodes[taskIndex] = task.getTaskIdCode();
+                comments[taskIndex] = task.getComment();
+                startMinutes[taskIndex] = task.getStartMinute();
+                endMinutes[taskIndex] = task.getEndMinute();
+                if (uncodedTaskIds != null && task.getTaskIdCode() == TaskIds.NO_CODE) {
+                    uncodedTaskIds[taskIndex] = task.getTaskId();
+                }
+                taskIndex++;
+            }
+            dayIndex++;
+        }
+        firstTasks[dayCount] = taskIndex;
+    }
+
+    /**
+     * Checks if there is a day on the given day of month.
+     * @param dayOfMonth 1-31
+     * @return Boolean
+     */
+    boolean containsDay(int dayOfMonth) {
+        return dayIndexes[dayOfMonth - 1] != NO_DAY;
+    }
+
+    /**
+     * Returns with the sum of the finished tasks of the given day.
+     * @param dayOfMonth 1-31
+     * @return long or 0, if there is no such day
+     */
+    long getSumPerDay(int dayOfMonth) {
+        int dayIndex = dayIndexes[dayOfMonth - 1];
+        return dayIndex == NO_DAY ? 0 : sumPerDay[dayIndex];
+    }
+
+    /**
+     * Returns with the overtime of the given day.
+     * @param dayOfMonth 1-31
+     * @return long or 0, if there is no such day
+     */
+    long getExtraMinPerDay(int dayOfMonth) {
+        int dayIndex = dayIndexes[dayOfMonth - 1];
+        return dayIndex == NO_DAY ? 0 : sumPerDay[dayIndex] - requiredMinPerDay[dayIndex];
+    }
+
+    /**
+     * Returns with the day on the given day of month, with its tasks,
+     * which belongs to the given sealed month. The day is created only,
+     * if it was not created yet, or it was cleared by the collector.
+     * @param dayOfMonth 1-31
+     * @param month
+     * @return WorkDay or null, if there is no such day
+     */
+    WorkDay getDay(int dayOfMonth, WorkMonth month) {
+        int dayIndex = dayIndexes[dayOfMonth - 1];
+        if (dayIndex == NO_DAY) {
+            return null;
+        }
+        while (true) {
+            SoftReference<WorkDay> reference = createdDays.get(dayIndex);
+            WorkDay day = reference == null ? null : reference.get();
+            if (day != null) {
+                return day;
+            }
+            day = createDay(dayIndex, dayOfMonth, month);
+            if (createdDays.compareAndSet(dayIndex, reference, new SoftReference<>(day))) {
+                return day;
+            }
+        }
+    }
+
+    private WorkDay createDay(int dayIndex, int dayOfMonth, WorkMonth month) {
+        WorkDay day = new WorkDay(LocalDate.of(date.getYear(), date.getMonthValue(), dayOfMonth),
+                requiredMinPerDay[dayIndex]);
+        for (int i = firstTasks[dayIndex]; i < firstTasks[dayIndex + 1]; i++) {
+            Task task = Task.restore(taskIdCodes[i], uncodedTaskIds == null ? null : uncodedTaskIds[i],
+                    comments[i], startMinutes[i], endMinutes[i]);
+            day.putTask(task);
+        }
+        day.setWorkMonth(month);
+        return day;
+    }
+}
@@ -0,0 +1,26 @@
+package timelogger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of the linear overlap check of Util.isSeparatedTime.
+ *
+ * @author Dubi
+ */
+@Name("timelogger.SeparationCheck")
+@Label("Separation Check")
+@Category("TimeLogger")
+@Description("Linear scan of tasks for an overlap with a task")
+final class SeparationCheckEvent extends Event {
+
+    @Label("Tasks")
+    @Description("Number of tasks, which the task was checked against")
+    int taskCount;
+
+    @Label("Separated")
+    boolean separated;
+}
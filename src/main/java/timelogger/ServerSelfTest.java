@@ -0,0 +1,226 @@
+package timelogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Latency and throughput test of a TimeLoggerServer against localhost.
+ *
+ * A server with an empty TimeLogger is started on a free port, then every
+ * client adds its own day and posts quarter hour tasks into it, every
+ * second request reads the day back. Responses with a status of 500 or
+ * above and failed connections are counted as errors.
+ *
+ * @author Dubi
+ */
+public class ServerSelfTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+    private static final int TASK_SLOTS_PER_DAY = 48;
+
+    private final int clientCount;
+    private final int requestsPerClient;
+
+    public ServerSelfTest(int clientCount, int requestsPerClient) {
+        if (clientCount < 1 || requestsPerClient < 1) {
+            throw new IllegalArgumentException("Client count and requests per client must be positive.");
+        }
+        this.clientCount = clientCount;
+        this.requestsPerClient = requestsPerClient;
+    }
+
+    /**
+     * Runs the test on a new server, which is stopped at the end.
+     * @return Report
+     * @throws IOException If the server can not be started.
+     * @throws InterruptedException
+     */
+    public Report run() throws IOException, InterruptedException {
+        try (TimeLoggerServer server = TimeLoggerServer.start(new ConcurrentTimeLogger(),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            return run(server.getAddress());
+        }
+    }
+
+    private Report run(InetSocketAddress address) throws InterruptedException {
+        String baseUrl = "http://" + address.getHostString() + ":" + address.getPort();
+        ExecutorService clients = TimeLoggerServer.newRequestExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Client>> futures = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            Client client = new Client(baseUrl, FIRST_DAY.plusDays(i));
+            futures.add(clients.submit(() -> {
+                start.await();
+                client.run();
+                return client;
+            }));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+
+        long[] latencies = new long[clientCount * requestsPerClient];
+        int requestCount = 0;
+        long errorCount = 0;
+        try {
+            for (Future<Client> future : futures) {
+                Client client = future.get();
+                System.arraycopy(client.latencies, 0, latencies, requestCount, client.requestCount);
+                requestCount += client.requestCount;
+                errorCount += client.errorCount;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A client of the self test failed.", e.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Arrays.sort(latencies, 0, requestCount);
+        return new Report(requestCount, errorCount, elapsedNanos,
+                percentile(latencies, requestCount, 50), percentile(latencies, requestCount, 99),
+                requestCount == 0 ? 0 : latencies[requestCount - 1]);
+    }
+
+    private static long percentile(long[] sortedLatencies, int count, int percent) {
+        if (count == 0) {
+            return 0;
+        }
+        return sortedLatencies[(int) Math.ceil(count * percent / 100d) - 1];
+    }
+
+    /**
+     * Sends the requests of one client, one after the other.
+     */
+    private class Client {
+
+        private final String baseUrl;
+        private final LocalDate date;
+        private final long[] latencies = new long[requestsPerClient];
+        private int requestCount;
+        private long errorCount;
+
+        Client(String baseUrl, LocalDate date) {
+            this.baseUrl = baseUrl;
+            this.date = date;
+        }
+
+        void run() {
+            send("POST", "/days", "date=" + date + "&weekendEnabled=true");
+            for (int i = 1; i < requestsPerClient; i++) {
+                if (i % 2 == 0) {
+                    send("GET", "/days/" + date, null);
+                } else {
+                    int slot = (i / 2) % TASK_SLOTS_PER_DAY;
+                    send("POST", "/tasks", "date=" + date + "&taskId=LT-" + (1000 + slot)
+                            + "&startTime=" + MinuteOfDay.toLocalTime((short) (slot * 15))
+                            + "&endTime=" + MinuteOfDay.toLocalTime((short) (slot * 15 + 15)));
+                }
+            }
+        }
+
+        private void send(String method, String path, String form) {
+            long startNanos = System.nanoTime();
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+                connection.setRequestMethod(method);
+                if (form != null) {
+                    byte[] body = form.getBytes(StandardCharsets.UTF_8);
+                    connection.setDoOutput(true);
+                    connection.setFixedLengthStreamingMode(body.length);
+                    connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(body);
+                    }
+                }
+                int status = connection.getResponseCode();
+                try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (in != null) {
+                        in.readAllBytes();
+                    }
+                }
+                if (status >= 500) {
+                    errorCount++;
+                }
+            } catch (IOException e) {
+                errorCount++;
+            }
+            latencies[requestCount++] = System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Result of a self test run.
+     */
+    public static class Report {
+
+        private final long requestCount;
+        private final long errorCount;
+        private final long elapsedNanos;
+        private final long p50LatencyNanos;
+        private final long p99LatencyNanos;
+        private final long maxLatencyNanos;
+
+        public Report(long requestCount, long errorCount, long elapsedNanos,
+                long p50LatencyNanos, long p99LatencyNanos, long maxLatencyNanos) {
+            this.requestCount = requestCount;
+            this.errorCount = errorCount;
+            this.elapsedNanos = elapsedNanos;
+            this.p50LatencyNanos = p50LatencyNanos;
+            this.p99LatencyNanos = p99LatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getP50LatencyNanos() {
+            return p50LatencyNanos;
+        }
+
+        public long getP99LatencyNanos() {
+            return p99LatencyNanos;
+        }
+
+        public long getMaxLatencyNanos() {
+            return maxLatencyNanos;
+        }
+
+        /**
+         * Returns the throughput of the test.
+         * @return double requests per second
+         */
+        public double getRequestsPerSecond() {
+            return elapsedNanos == 0 ? 0 : requestCount * 1_000_000_000d / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" + "requestCount=" + requestCount + ", errorCount=" + errorCount
+                    + ", requestsPerSecond=" + (long) getRequestsPerSecond()
+                    + ", p50=" + p50LatencyNanos / 1000 + "us, p99=" + p99LatencyNanos / 1000
+                    + "us, max=" + maxLatencyNanos / 1000 + "us}";
+        }
+    }
+}
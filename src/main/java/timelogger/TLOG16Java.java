@@ -1,18 +1,137 @@
 package timelogger;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 /**
  *
  * @author Dubi
  */
 public class TLOG16Java {
 
+    private static final long JOURNAL_COMPACTION_THRESHOLD = 10_000;
+    private static final int WRITE_BEHIND_BATCH_RECORDS = 256;
+    private static final long WRITE_BEHIND_DELAY_MILLIS = 200;
+    private static final int SELF_TEST_CLIENTS = 100;
+    private static final int SELF_TEST_REQUESTS_PER_CLIENT = 1000;
+    private static final int BATCH_BUFFER_SIZE = 1 << 16;
+
     /**
      * The main method, which starts the UI.
+     * With --journal [directory] every change is recorded in the journal 
+     * of the given directory, and the previous state is restored from it.
+     * With --write-behind the journal is written by a background thread.
+     * With --server [port] the HTTP API is started instead of the UI.
+     * It can not be combined with --journal, as the journal is compacted
+     * in the listener of the changes, without the locks of the stripes.
+     * The server and the self test run with -Dsun.net.httpserver.nodelay=true,
+     * unless the property is given.
+     * With --self-test the HTTP API is load tested against localhost.
+     * With --batch [file] the commands of the UI are read from the file,
+     * or from the standard input for -, without the menu and the prompts.
+     * With -Dtimelogger.metrics=true the TimeLoggerMetrics MXBean is registered.
+     * With -XX:StartFlightRecording the TimeLogger events are recorded, too.
      * @param args 
+     * @throws IOException If the journal can not be opened.
+     * @throws IllegalArgumentException If --server is given with --journal.
+     * @throws InterruptedException If the self test is interrupted.
      */
-    public static void main(String[] args) {
-        TimeLoggerUI timeLoggerUI = new TimeLoggerUI();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path journalDirectory = null;
+        boolean writeBehind = false;
+        int serverPort = -1;
+        String batchInput = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--journal".equals(args[i]) && i + 1 < args.length) {
+                journalDirectory = Paths.get(args[++i]);
+            } else if ("--write-behind".equals(args[i])) {
+                writeBehind = true;
+            } else if ("--server".equals(args[i]) && i + 1 < args.length) {
+                serverPort = Integer.parseInt(args[++i]);
+            } else if ("--batch".equals(args[i]) && i + 1 < args.length) {
+                batchInput = args[++i];
+            } else if ("--self-test".equals(args[i])) {
+                enableNoDelay();
+                System.out.println(new ServerSelfTest(SELF_TEST_CLIENTS, 
+                        SELF_TEST_REQUESTS_PER_CLIENT).run());
+                return;
+            }
+        }
+
+        if (serverPort >= 0 && journalDirectory != null) {
+            throw new IllegalArgumentException("--server can not be combined with --journal.");
+        }
+
+        TimeLogger timeLogger = new TimeLogger();
+        if (journalDirectory != null) {
+            TimeLoggerJournal journal = writeBehind
+                    ? TimeLoggerJournal.openWriteBehind(journalDirectory, JOURNAL_COMPACTION_THRESHOLD, 
+                            WRITE_BEHIND_BATCH_RECORDS, WRITE_BEHIND_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+                    : TimeLoggerJournal.open(journalDirectory, JOURNAL_COMPACTION_THRESHOLD);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            timeLogger = journal.getTimeLogger();
+        }
+        if (serverPort >= 0) {
+            enableNoDelay();
+            TimeLoggerServer server = TimeLoggerServer.start(
+                    new ConcurrentTimeLogger(timeLogger, ConcurrentTimeLogger.DEFAULT_STRIPE_COUNT), 
+                    new InetSocketAddress(serverPort));
+            System.out.println("Listening on " + server.getAddress());
+            return;
+        }
+        if (batchInput != null) {
+            runBatch(timeLogger, batchInput);
+            return;
+        }
+        TimeLoggerUI timeLoggerUI = new TimeLoggerUI(timeLogger);
         
         timeLoggerUI.startUI();
+    }
+
+    /**
+     * Turns off the Nagle algorithm of the HTTP server, unless it is configured
+     * already. It has to be called before the first server is started.
+     */
+    private static void enableNoDelay() {
+        if (System.getProperty(TimeLoggerServer.NO_DELAY_PROPERTY) == null) {
+            System.setProperty(TimeLoggerServer.NO_DELAY_PROPERTY, "true");
+        }
+    }
+
+    /**
+     * Runs the commands of the given file, or of the standard input for -,
+     * then prints the number of commands and the elapsed time to the error output.
+     * @param timeLogger
+     * @param input
+     * @throws IOException 
+     */
+    private static void runBatch(TimeLogger timeLogger, String input) throws IOException {
+        long startNanos = System.nanoTime();
+        try (BufferedReader in = "-".equals(input) 
+                ? new BufferedReader(new InputStreamReader(System.in), BATCH_BUFFER_SIZE)
+                : Files.newBufferedReader(Paths.get(input))) {
+            PrintWriter out = new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(System.out), BATCH_BUFFER_SIZE));
+            TimeLoggerUI timeLoggerUI = new TimeLoggerUI(timeLogger, in, out, false);
+            timeLoggerUI.startUI();
+            System.err.println(timeLoggerUI.getCommandCount() + " commands in " 
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+        }
     }   
 }
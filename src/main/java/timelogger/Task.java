@@ -1,53 +1,154 @@
 package timelogger;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import lombok.Getter;
-import lombok.Setter;
 import timelogger.exceptions.EmptyTimeFieldException;
 import timelogger.exceptions.InvalidTaskIdException;
 import timelogger.exceptions.NoTaskIdException;
 import timelogger.exceptions.NotExpectedTimeOrderException;
 
 /**
+ * Task is stored in a compact form: times as minute of day values,
+ * the id as its code from TaskIds, the comment as the shared instance
+ * from CommentDictionary. Times have minute precision.
  * 
  * @author Dubi
  */
-@Getter
 public class Task {
 
-    @Setter private String taskId;
-    @Setter private String comment;
-    private LocalTime startTime;
-    private LocalTime endTime;
+    private int taskIdCode = TaskIds.NO_CODE;
+    private String uncodedTaskId;
+    private String comment;
+    private short startMinute = MinuteOfDay.NONE;
+    private short endMinute = MinuteOfDay.NONE;
+    private WorkDay workDay;
 
     public Task(String taskId) throws EmptyTimeFieldException, NoTaskIdException, InvalidTaskIdException {
-        this.taskId = evalueateTaskId(taskId);
+        setTaskId(evalueateTaskId(taskId));
     }
 
     public Task(String taskId, String comment,
             int startHour, int startMin, int endHour, int endMin) throws NotExpectedTimeOrderException, InvalidTaskIdException, NoTaskIdException, EmptyTimeFieldException{
 
-        this.taskId = evalueateTaskId(taskId);
-        this.comment = comment;
-        this.startTime = LocalTime.of(startHour, startMin);
-        this.endTime = LocalTime.of(endHour, endMin);
+        setTaskId(evalueateTaskId(taskId));
+        setComment(comment);
+        LocalTime startTime = LocalTime.of(startHour, startMin);
+        LocalTime endTime = LocalTime.of(endHour, endMin);
         
-        checkTimeOrder(this.startTime, this.endTime);
-        endTime = Util.roundToMultipleQuaterHour(startTime, endTime);
+        checkTimeOrder(startTime, endTime);
+        this.startMinute = MinuteOfDay.of(startTime);
+        this.endMinute = MinuteOfDay.of(
+                Util.roundToMultipleQuaterHour(startTime, endTime));
     }
 
     public Task(String taskId, String comment,
             String startTime, String endTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException {
-        this.taskId = evalueateTaskId(taskId);
+        setTaskId(evalueateTaskId(taskId));
+        setComment(comment);
+        LocalTime parsedStartTime = checkStringTime(startTime);
+        LocalTime parsedEndTime = checkStringTime(endTime);
+
+        checkTimeOrder(parsedStartTime, parsedEndTime);
+        this.startMinute = MinuteOfDay.of(parsedStartTime);
+        this.endMinute = MinuteOfDay.of(Util.roundToMultipleQuaterHour(
+                parsedStartTime, parsedEndTime));
+    }
+
+    private Task() {
+    }
+
+    /**
+     * Creates a task from its compact form, without validating it again.
+     * Used to restore already validated tasks, e.g. from a snapshot.
+     * @param taskIdCode
+     * @param uncodedTaskId id, which has no code, or null
+     * @param comment the shared instance from CommentDictionary or null
+     * @param startMinute
+     * @param endMinute
+     * @return Task
+     */
+    static Task restore(int taskIdCode, String uncodedTaskId, String comment, 
+            short startMinute, short endMinute) {
+        Task task = new Task();
+        task.restoreState(taskIdCode, uncodedTaskId, comment, startMinute, endMinute);
+        return task;
+    }
+
+    /**
+     * Overwrites every value of this task with its compact form, 
+     * without validating it again, e.g. while replaying a journal.
+     * @param taskIdCode
+     * @param uncodedTaskId id, which has no code, or null
+     * @param comment the shared instance from CommentDictionary or null
+     * @param startMinute
+     * @param endMinute 
+     */
+    void restoreState(int taskIdCode, String uncodedTaskId, String comment, 
+            short startMinute, short endMinute) {
+        checkNotSealed();
+        String oldTaskId = getTaskId();
+        long oldMinutes = getFinishedMinutes();
+        short oldStartMinute = this.startMinute;
+        short oldEndMinute = this.endMinute;
+        this.taskIdCode = taskIdCode;
+        this.uncodedTaskId = uncodedTaskId;
         this.comment = comment;
-        this.startTime = checkStringTime(startTime);
-        this.endTime = checkStringTime(endTime);
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        notifyChanged(oldTaskId, oldMinutes, oldStartMinute, oldEndMinute);
+    }
+
+    /**
+     * Getter for taskId.
+     * @return String taskId
+     */
+    public String getTaskId() {
+        return uncodedTaskId != null ? uncodedTaskId : TaskIds.decode(taskIdCode);
+    }
+
+    /**
+     * Setter for taskId. Ids, which are not valid, are stored as they are.
+     * @param taskId 
+     */
+    public void setTaskId(String taskId) {
+        checkNotSealed();
+        String oldTaskId = getTaskId();
+        this.taskIdCode = TaskIds.encode(taskId);
+        this.uncodedTaskId = taskIdCode == TaskIds.NO_CODE ? taskId : null;
+        notifyChanged(oldTaskId, getFinishedMinutes());
+    }
+
+    /**
+     * Getter for comment.
+     * @return String comment
+     */
+    public String getComment() {
+        return comment;
+    }
 
-        checkTimeOrder(this.startTime, this.endTime);
-        this.endTime = Util.roundToMultipleQuaterHour(
-                this.startTime, this.endTime);
+    /**
+     * Setter for comment.
+     * @param comment 
+     */
+    public void setComment(String comment) {
+        checkNotSealed();
+        this.comment = CommentDictionary.intern(comment);
+        notifyChanged(getTaskId(), getFinishedMinutes());
+    }
+
+    /**
+     * Getter for startTime.
+     * @return LocalTime startTime or null
+     */
+    public LocalTime getStartTime() {
+        return MinuteOfDay.toLocalTime(startMinute);
+    }
+
+    /**
+     * Getter for endTime.
+     * @return LocalTime endTime or null
+     */
+    public LocalTime getEndTime() {
+        return MinuteOfDay.toLocalTime(endMinute);
     }
 
     /**
@@ -57,8 +158,11 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setStartTime(LocalTime startTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException {
-        this.startTime = startTime;
-        validateSetStartTime();        
+        checkNotSealed();
+        long oldMinutes = getFinishedMinutes();
+        short oldStartMinute = this.startMinute;
+        this.startMinute = MinuteOfDay.of(startTime);
+        validateSetStartTime(oldMinutes, oldStartMinute);        
     }
     
     /**
@@ -69,8 +173,11 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setStartTime(int startHour, int startMin) throws NotExpectedTimeOrderException, EmptyTimeFieldException{
-        this.startTime = LocalTime.of(startHour, startMin);
-        validateSetStartTime();        
+        checkNotSealed();
+        long oldMinutes = getFinishedMinutes();
+        short oldStartMinute = this.startMinute;
+        this.startMinute = MinuteOfDay.of(LocalTime.of(startHour, startMin));
+        validateSetStartTime(oldMinutes, oldStartMinute);        
     }
     
     /**
@@ -80,22 +187,31 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setStartTime(String startTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException{
-        this.startTime = LocalTime
-                .parse(startTime, DateTimeFormatter.ofPattern("H:m"));
-        validateSetStartTime(); 
+        checkNotSealed();
+        long oldMinutes = getFinishedMinutes();
+        short oldStartMinute = this.startMinute;
+        this.startMinute = (short) TimeParser.parseMinuteOfDay(startTime);
+        validateSetStartTime(oldMinutes, oldStartMinute); 
     }
     
     /**
      * Rounds the endTime of a task, if it is not multiples of quarter hour away from startTime.
-     * @param startTime
+     * @param oldMinutes the finished minutes before startTime was set
+     * @param oldStartMinute the start minute before startTime was set
      * @throws EmptyTimeFieldException
      * @throws NotExpectedTimeOrderException 
      */
-    private void validateSetStartTime() throws EmptyTimeFieldException, NotExpectedTimeOrderException {
-        if (this.endTime != null) {
-            this.endTime = Util.roundToMultipleQuaterHour(
-                    this.startTime,this.endTime);
-            checkTimeOrder(this.startTime, endTime);
+    private void validateSetStartTime(long oldMinutes, short oldStartMinute) throws EmptyTimeFieldException, NotExpectedTimeOrderException {
+        short oldEndMinute = this.endMinute;
+        try {
+            if (this.endMinute != MinuteOfDay.NONE) {
+                LocalTime endTime = Util.roundToMultipleQuaterHour(
+                        getStartTime(), getEndTime());
+                this.endMinute = MinuteOfDay.of(endTime);
+                checkTimeOrder(getStartTime(), endTime);
+            }
+        } finally {
+            notifyChanged(getTaskId(), oldMinutes, oldStartMinute, oldEndMinute);
         }
     }
 
@@ -106,8 +222,7 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setEndTime(LocalTime endTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException {
-        this.endTime = Util.roundToMultipleQuaterHour(startTime, endTime);
-        checkTimeOrder(startTime, this.endTime);
+        applyEndTime(endTime);
     }
     
     /**
@@ -118,9 +233,7 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setEndTime(int hour, int minute) throws NotExpectedTimeOrderException, EmptyTimeFieldException{
-        this.endTime = Util.roundToMultipleQuaterHour(startTime, 
-                LocalTime.of(hour, minute));
-        checkTimeOrder(startTime, this.endTime);
+        applyEndTime(LocalTime.of(hour, minute));
     }
     
     /**
@@ -130,9 +243,26 @@ public class Task {
      * @throws EmptyTimeFieldException
      */
     public void setEndTime(String endTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException{
-        this.endTime = Util.roundToMultipleQuaterHour(startTime, 
-                LocalTime.parse(endTime, DateTimeFormatter.ofPattern("H:m")));
-        checkTimeOrder(startTime, this.endTime);
+        applyEndTime(TimeParser.parse(endTime));
+    }
+
+    /**
+     * Sets the rounded endTime, then checks the order of the times.
+     * @param endTime
+     * @throws NotExpectedTimeOrderException
+     * @throws EmptyTimeFieldException 
+     */
+    private void applyEndTime(LocalTime endTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException {
+        checkNotSealed();
+        long oldMinutes = getFinishedMinutes();
+        short oldEndMinute = this.endMinute;
+        LocalTime roundedEndTime = Util.roundToMultipleQuaterHour(getStartTime(), endTime);
+        this.endMinute = MinuteOfDay.of(roundedEndTime);
+        try {
+            checkTimeOrder(getStartTime(), roundedEndTime);
+        } finally {
+            notifyChanged(getTaskId(), oldMinutes, startMinute, oldEndMinute);
+        }
     }
 
     /**
@@ -141,10 +271,74 @@ public class Task {
      * @throws EmptyTimeFieldException 
      */
     public long getMinPerTask() throws EmptyTimeFieldException  {
-        if (startTime == null || endTime == null) {
+        if (startMinute == MinuteOfDay.NONE || endMinute == MinuteOfDay.NONE) {
             throw new EmptyTimeFieldException("Missing start or end time.");
         }
-        return startTime.until(endTime, ChronoUnit.MINUTES);
+        return endMinute - startMinute;
+    }
+
+    /**
+     * Returns the amount of minutes of current task, or 0 if it is not finished.
+     * @return long duration
+     */
+    long getFinishedMinutes() {
+        if (startMinute == MinuteOfDay.NONE || endMinute == MinuteOfDay.NONE) {
+            return 0;
+        }
+        return endMinute - startMinute;
+    }
+
+    /**
+     * Returns the code of the taskId.
+     * @return int code or TaskIds.NO_CODE, if the id is not valid
+     */
+    int getTaskIdCode() {
+        return taskIdCode;
+    }
+
+    /**
+     * Returns the minute of day of startTime.
+     * @return short minute or MinuteOfDay.NONE
+     */
+    short getStartMinute() {
+        return startMinute;
+    }
+
+    /**
+     * Returns the minute of day of endTime.
+     * @return short minute or MinuteOfDay.NONE
+     */
+    short getEndMinute() {
+        return endMinute;
+    }
+
+    /**
+     * Checks if given id could be the id of a task, without throwing any exception.
+     * @param id
+     * @return ValidationResult
+     */
+    public static ValidationResult validateTaskId(CharSequence id) {
+        if (id == null || id.length() == 0) {
+            return ValidationResult.NO_TASK_ID;
+        } else if (!TaskIds.isValid(id)) {
+            return ValidationResult.INVALID_TASK_ID;
+        }
+        return ValidationResult.OK;
+    }
+
+    /**
+     * Checks if given times could be the times of a task, without throwing any exception.
+     * @param startTime
+     * @param endTime
+     * @return ValidationResult
+     */
+    public static ValidationResult validateTimes(LocalTime startTime, LocalTime endTime) {
+        if (startTime == null || endTime == null) {
+            return ValidationResult.EMPTY_TIME_FIELD;
+        } else if (startTime.isAfter(endTime)) {
+            return ValidationResult.NOT_EXPECTED_TIME_ORDER;
+        }
+        return ValidationResult.OK;
     }
 
     /**
@@ -153,13 +347,65 @@ public class Task {
      * @return Boolean
      */
     public boolean isValidTaskId(String id) {
-        return id.matches("(LT-\\d{4}|\\d{4})");
+        return TaskIds.isValid(id);
+    }
+
+    /**
+     * Getter for the WorkDay, which holds this task.
+     * @return WorkDay or null, if the task is not in a day
+     */
+    public WorkDay getWorkDay() {
+        return workDay;
+    }
+
+    /**
+     * Sets the WorkDay, which holds this task.
+     * @param workDay or null, if the task was removed from its day
+     */
+    void setWorkDay(WorkDay workDay) {
+        this.workDay = workDay;
+    }
+
+    /**
+     * Checks that the task is not in a sealed month.
+     * @throws IllegalStateException If the month of the day of this task is sealed.
+     */
+    private void checkNotSealed() {
+        if (workDay != null && workDay.isSealed()) {
+            throw new IllegalStateException("The task is in a sealed month.");
+        }
+    }
+
+    /**
+     * Lets the owning WorkDay know, that the id or the comment of this task was changed.
+     * @param oldTaskId the id before the change
+     * @param oldMinutes the finished minutes before the change
+     */
+    private void notifyChanged(String oldTaskId, long oldMinutes) {
+        if (workDay != null) {
+            workDay.taskChanged(this, oldTaskId, oldMinutes, false);
+        }
+    }
+
+    /**
+     * Lets the owning WorkDay know, that this task was changed,
+     * which may have changed its times.
+     * @param oldTaskId the id before the change
+     * @param oldMinutes the finished minutes before the change
+     * @param oldStartMinute the start minute before the change
+     * @param oldEndMinute the end minute before the change
+     */
+    private void notifyChanged(String oldTaskId, long oldMinutes, short oldStartMinute, short oldEndMinute) {
+        if (workDay != null) {
+            workDay.taskChanged(this, oldTaskId, oldMinutes, 
+                    startMinute != oldStartMinute || endMinute != oldEndMinute);
+        }
     }
 
     @Override
     public String toString() {
-        return "taskId=" + taskId + ", comment=" + comment + ", startTime=" 
-                + startTime + ", endTime=" + endTime;
+        return "taskId=" + getTaskId() + ", comment=" + getComment() + ", startTime=" 
+                + getStartTime() + ", endTime=" + getEndTime();
     }
 
     /**
@@ -184,7 +430,7 @@ public class Task {
         if (time.isBlank()) {
             throw new EmptyTimeFieldException("Time field is blank.");
         }
-        return LocalTime.parse(time, DateTimeFormatter.ofPattern("H:m"));
+        return TimeParser.parse(time);
     }
 
     /**
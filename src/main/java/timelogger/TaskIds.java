@@ -0,0 +1,91 @@
+package timelogger;
+
+/**
+ * Encodes valid task ids into int codes.
+ * Ids of the form dddd get the codes 0-9999, 
+ * ids of the form LT-dddd get the codes 10000-19999.
+ *
+ * @author Dubi
+ */
+public final class TaskIds {
+
+    public static final int NO_CODE = -1;
+    public static final int CODE_COUNT = 20000;
+
+    private static final String PREFIX = "LT-";
+    private static final int DIGITS = 4;
+    private static final int PREFIXED_OFFSET = 10000;
+
+    private static final String[] DECODED_IDS = new String[CODE_COUNT];
+
+    private TaskIds() {
+    }
+
+    /**
+     * Checks if given id is a valid task id, that is dddd or LT-dddd.
+     * Does not allocate, so it can be used on any CharSequence, 
+     * e.g. on a slice of an input buffer.
+     * @param id
+     * @return Boolean
+     */
+    public static boolean isValid(CharSequence id) {
+        return encode(id) != NO_CODE;
+    }
+
+    /**
+     * Returns the code of given task id.
+     * @param id
+     * @return int code or NO_CODE, if id is not a valid task id
+     */
+    public static int encode(CharSequence id) {
+        if (id == null) {
+            return NO_CODE;
+        } else if (id.length() == DIGITS) {
+            return parseDigits(id, 0);
+        } else if (id.length() == PREFIX.length() + DIGITS && hasPrefix(id)) {
+            int digits = parseDigits(id, PREFIX.length());
+            return digits == NO_CODE ? NO_CODE : PREFIXED_OFFSET + digits;
+        }
+        return NO_CODE;
+    }
+
+    /**
+     * Returns the task id of given code. 
+     * The same String instance is returned for the same code.
+     * @param code
+     * @return String id or null, if code is NO_CODE
+     */
+    public static String decode(int code) {
+        if (code == NO_CODE) {
+            return null;
+        }
+        String id = DECODED_IDS[code];
+        if (id == null) {
+            String digits = String.valueOf(PREFIXED_OFFSET + code % PREFIXED_OFFSET).substring(1);
+            id = code >= PREFIXED_OFFSET ? PREFIX + digits : digits;
+            DECODED_IDS[code] = id;
+        }
+        return id;
+    }
+
+    private static boolean hasPrefix(CharSequence id) {
+        for (int i = 0; i < PREFIX.length(); i++) {
+            if (id.charAt(i) != PREFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseDigits(CharSequence id, int from) {
+        int value = 0;
+        for (int i = from; i < from + DIGITS; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_CODE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,209 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Totals of every valid task id: minutes, number of tasks and the first
+ * and last date, on which the id occurs. The totals are kept in flat
+ * arrays indexed by the code of the id, so a lookup neither hashes
+ * nor boxes. Tasks with ids, which are not valid, are not counted.
+ *
+ * The ledger is kept up to date by listening to its TimeLogger.
+ *
+ * @author Dubi
+ */
+public class TaskLedger implements TimeLoggerListener {
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final long[] minutes = new long[TaskIds.CODE_COUNT];
+    private final int[] taskCounts = new int[TaskIds.CODE_COUNT];
+    private final int[] firstEpochDays = new int[TaskIds.CODE_COUNT];
+    private final int[] lastEpochDays = new int[TaskIds.CODE_COUNT];
+    private final LongLongHashMap taskCountsPerDay = new LongLongHashMap();
+    private int taskIdCount;
+
+    TaskLedger() {
+        Arrays.fill(firstEpochDays, NO_DAY);
+        Arrays.fill(lastEpochDays, NO_DAY);
+    }
+
+    /**
+     * Returns with all the finished minutes of the given task id.
+     * @param taskId
+     * @return long or 0, if there is no such task id
+     */
+    public synchronized long getMinutes(String taskId) {
+        int code = TaskIds.encode(taskId);
+        return code == TaskIds.NO_CODE ? 0 : minutes[code];
+    }
+
+    /**
+     * Returns with the number of tasks with the given task id.
+     * @param taskId
+     * @return int or 0, if there is no such task id
+     */
+    public synchronized int getTaskCount(String taskId) {
+        int code = TaskIds.encode(taskId);
+        return code == TaskIds.NO_CODE ? 0 : taskCounts[code];
+    }
+
+    /**
+     * Returns with the first date of the tasks with the given task id.
+     * @param taskId
+     * @return LocalDate or null, if there is no such task id
+     */
+    public synchronized LocalDate getFirstDate(String taskId) {
+        int code = TaskIds.encode(taskId);
+        return code == TaskIds.NO_CODE || taskCounts[code] == 0
+                ? null : LocalDate.ofEpochDay(firstEpochDays[code]);
+    }
+
+    /**
+     * Returns with the last date of the tasks with the given task id.
+     * @param taskId
+     * @return LocalDate or null, if there is no such task id
+     */
+    public synchronized LocalDate getLastDate(String taskId) {
+        int code = TaskIds.encode(taskId);
+        return code == TaskIds.NO_CODE || taskCounts[code] == 0
+                ? null : LocalDate.ofEpochDay(lastEpochDays[code]);
+    }
+
+    /**
+     * Returns with the number of task ids, which have at least one task.
+     * @return int
+     */
+    public synchronized int getTaskIdCount() {
+        return taskIdCount;
+    }
+
+    /**
+     * Returns with the task ids with the most minutes, in descending order.
+     * Ties are ordered by their code, dddd ids before LT-dddd ids.
+     * @param n the maximum number of ids
+     * @return List of task ids
+     */
+    public synchronized List<String> getTopTaskIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of task ids cannot be negative.");
+        }
+        int[] top = new int[Math.min(n, taskIdCount)];
+        int size = 0;
+        for (int code = 0; code < TaskIds.CODE_COUNT && top.length > 0; code++) {
+            if (taskCounts[code] == 0) {
+                continue;
+            }
+            if (size < top.length) {
+                size++;
+            } else if (minutes[code] <= minutes[top[size - 1]]) {
+                continue;
+            }
+            int i = size - 1;
+            while (i > 0 && minutes[code] > minutes[top[i - 1]]) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = code;
+        }
+        List<String> taskIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            taskIds.add(TaskIds.decode(top[i]));
+        }
+        return taskIds;
+    }
+
+    @Override
+    public synchronized void monthAdded(WorkMonth month) {
+        for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+            WorkDay day = month.getDay(dayOfMonth);
+            if (day != null) {
+                workDayAdded(month, day);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void workDayAdded(WorkMonth month, WorkDay day) {
+        for (Task task : day.getTaskList()) {
+            taskAdded(day, task);
+        }
+    }
+
+    @Override
+    public synchronized void taskAdded(WorkDay day, Task task) {
+        add(task.getTaskIdCode(), day.getActualDay(), 1, task.getFinishedMinutes());
+    }
+
+    @Override
+    public synchronized void taskRemoved(WorkDay day, Task task, int index) {
+        add(task.getTaskIdCode(), day.getActualDay(), -1, -task.getFinishedMinutes());
+    }
+
+    @Override
+    public synchronized void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+        int oldCode = TaskIds.encode(oldTaskId);
+        if (oldCode == task.getTaskIdCode()) {
+            if (oldCode != TaskIds.NO_CODE) {
+                minutes[oldCode] += task.getFinishedMinutes() - oldMinutes;
+            }
+            return;
+        }
+        add(oldCode, day.getActualDay(), -1, -oldMinutes);
+        add(task.getTaskIdCode(), day.getActualDay(), 1, task.getFinishedMinutes());
+    }
+
+    private void add(int code, LocalDate date, int countDelta, long minutesDelta) {
+        if (code == TaskIds.NO_CODE) {
+            return;
+        }
+        int epochDay = (int) date.toEpochDay();
+        minutes[code] += minutesDelta;
+        taskCountsPerDay.add(dayKey(code, epochDay), countDelta);
+        int oldTaskCount = taskCounts[code];
+        taskCounts[code] += countDelta;
+        if (oldTaskCount == 0) {
+            taskIdCount++;
+            firstEpochDays[code] = epochDay;
+            lastEpochDays[code] = epochDay;
+        } else if (taskCounts[code] == 0) {
+            taskIdCount--;
+            firstEpochDays[code] = NO_DAY;
+            lastEpochDays[code] = NO_DAY;
+        } else if (countDelta > 0) {
+            firstEpochDays[code] = Math.min(firstEpochDays[code], epochDay);
+            lastEpochDays[code] = Math.max(lastEpochDays[code], epochDay);
+        } else if (taskCountsPerDay.get(dayKey(code, epochDay)) == 0) {
+            moveBoundaries(code, epochDay);
+        }
+    }
+
+    /**
+     * Moves the first or last date of the given code inwards, after the
+     * last task of the given day was removed. Only the days between the
+     * old boundaries are checked, and there is still a task on one of them.
+     */
+    private void moveBoundaries(int code, int removedEpochDay) {
+        if (firstEpochDays[code] == removedEpochDay) {
+            int day = removedEpochDay + 1;
+            while (taskCountsPerDay.get(dayKey(code, day)) == 0) {
+                day++;
+            }
+            firstEpochDays[code] = day;
+        }
+        if (lastEpochDays[code] == removedEpochDay) {
+            int day = removedEpochDay - 1;
+            while (taskCountsPerDay.get(dayKey(code, day)) == 0) {
+                day--;
+            }
+            lastEpochDays[code] = day;
+        }
+    }
+
+    private static long dayKey(int code, int epochDay) {
+        return ((long) code << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+}
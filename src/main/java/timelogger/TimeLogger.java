@@ -1,26 +1,137 @@
 package timelogger;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import timelogger.exceptions.NotNewMonthException;
 
 /**
+ * The months are kept in concurrent collections, and adding a month is
+ * an atomic check and insert. Use ConcurrentTimeLogger to change 
+ * the days and tasks from several threads.
+ * 
+ * A TimeLogger opened by openSegmented keeps its months in the segment
+ * files of a directory, and only the recently used months in memory.
  * 
  * @author Dubi
  */
 public class TimeLogger {
-    private final List<WorkMonth> months = new ArrayList<>();
+    private final List<WorkMonth> months = new CopyOnWriteArrayList<>();
+    private final List<WorkMonth> readOnlyMonths = Collections.unmodifiableList(months);
+    private final Map<YearMonth, WorkMonth> monthsByDate = new ConcurrentHashMap<>();
+    private final NavigableMap<YearMonth, WorkMonth> chronologicalMonths = new ConcurrentSkipListMap<>();
+    private final List<TimeLoggerListener> listeners = new CopyOnWriteArrayList<>();
+    private TaskLedger taskLedger;
+    private MonthSegmentStore segmentStore;
 
     /**
      * Getter for months
+     * The returned list is a read-only view, months are added by addMonth.
      * @throws IllegalStateException If the list of months is empty.
      * @return List of months
      */
     public List<WorkMonth> getMonths() {
-        if (months.isEmpty()) {
+        if (segmentStore != null ? segmentStore.size() == 0 : months.isEmpty()) {
             throw new IllegalStateException("The list of months is empty.");
         }
-        return months;
+        return segmentStore != null ? new SegmentedMonthList() : readOnlyMonths;
+    }
+    
+    /**
+     * Returns with the month of the given date.
+     * @param date
+     * @return WorkMonth or null, if there is no such month
+     */
+    public WorkMonth getMonth(YearMonth date) {
+        if (segmentStore != null) {
+            return segmentStore.get(date);
+        }
+        return monthsByDate.get(date);
+    }
+
+    /**
+     * Checks if there is a month with the given date.
+     * @param date
+     * @return Boolean
+     */
+    public boolean containsMonth(YearMonth date) {
+        if (segmentStore != null) {
+            return segmentStore.contains(date);
+        }
+        return monthsByDate.containsKey(date);
+    }
+
+    /**
+     * Returns with the months in chronological order.
+     * @return read-only Collection of months
+     */
+    public Collection<WorkMonth> getMonthsInOrder() {
+        if (segmentStore != null) {
+            return new SegmentedMonthCollection();
+        }
+        return Collections.unmodifiableCollection(chronologicalMonths.values());
+    }
+    
+    /**
+     * Returns with the tasks of the days from the first to the last given
+     * date, both included, in chronological order.
+     * The stream is lazy, only the months and days in range are visited.
+     * The tasks of a day are ordered by their startTime. Only the days,
+     * whose tasks were not added in that order, are sorted into a buffer.
+     * @param from
+     * @param to
+     * @throws IllegalArgumentException If from is after to.
+     * @return Stream of tasks
+     */
+    public Stream<Task> query(LocalDate from, LocalDate to) {
+        return queryDays(from, to).flatMap(day -> day.getTasksInStartOrder().stream());
+    }
+
+    /**
+     * Returns with the days from the first to the last given date,
+     * both included, in chronological order.
+     * The stream is lazy, only the months and days in range are visited.
+     * @param from
+     * @param to
+     * @throws IllegalArgumentException If from is after to.
+     * @return Stream of days
+     */
+    public Stream<WorkDay> queryDays(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The start of the range is after its end.");
+        }
+        return monthsBetween(YearMonth.from(from), YearMonth.from(to))
+                .flatMap(month -> {
+                    int firstDay = month.getDate().equals(YearMonth.from(from)) ? from.getDayOfMonth() : 1;
+                    int lastDay = month.getDate().equals(YearMonth.from(to)) 
+                            ? to.getDayOfMonth() : month.getDate().lengthOfMonth();
+                    return IntStream.rangeClosed(firstDay, lastDay)
+                            .mapToObj(month::getDay)
+                            .filter(Objects::nonNull);
+                });
+    }
+
+    private Stream<WorkMonth> monthsBetween(YearMonth from, YearMonth to) {
+        if (segmentStore != null) {
+            return segmentStore.datesBetween(from, to).stream().map(segmentStore::get);
+        }
+        return chronologicalMonths.subMap(from, true, to, true).values().stream();
     }
     
     /**
@@ -29,21 +140,197 @@ public class TimeLogger {
      * @return Boolean
      */
     public boolean isNewMonth(WorkMonth workMonth){
-        return !months.stream()
-                .anyMatch(month -> workMonth.getDate()
-                        .equals(month.getDate()));
+        return !containsMonth(workMonth.getDate());
     }
     
+    /**
+     * Adds the given workMonth to the list of months, if it is new.
+     * Same as addMonth, but returns the result instead of throwing an exception.
+     * @param workMonth
+     * @throws IllegalArgumentException If given month has no date.
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddMonth(WorkMonth workMonth) {
+        if (workMonth.getDate() == null) {
+            throw new IllegalArgumentException("The month has no date.");
+        }
+        if (segmentStore != null) {
+            if (!segmentStore.add(workMonth)) {
+                return ValidationResult.NOT_NEW_MONTH;
+            }
+            notifyListeners(listener -> listener.monthAdded(workMonth));
+            return ValidationResult.OK;
+        }
+        if (monthsByDate.putIfAbsent(workMonth.getDate(), workMonth) != null) {
+            return ValidationResult.NOT_NEW_MONTH;
+        }
+        months.add(workMonth);
+        chronologicalMonths.put(workMonth.getDate(), workMonth);
+        workMonth.setTimeLogger(this);
+        notifyListeners(listener -> listener.monthAdded(workMonth));
+        return ValidationResult.OK;
+    }
+
     /**
      * Adds the given workMonth to the list of months.
      * @param workMonth
+     * @throws IllegalArgumentException If given month has no date.
      * @throws NotNewMonthException 
      */
     public void addMonth(WorkMonth workMonth) throws NotNewMonthException{
-        if (isNewMonth(workMonth)) {
-            months.add(workMonth);
-        }else{
+        if (!tryAddMonth(workMonth).isValid()) {
             throw new NotNewMonthException("This month already exists.");
         }
+    }
+
+    /**
+     * Returns with the ledger of the task ids of this TimeLogger.
+     * The ledger is created on the first call, from then on it is kept
+     * up to date on every change. The existing tasks are read before the
+     * ledger listens to the changes, so nothing may be changed meanwhile,
+     * e.g. ConcurrentTimeLogger.getTaskLedger holds all of its locks.
+     * @return TaskLedger
+     */
+    public synchronized TaskLedger getTaskLedger() {
+        if (taskLedger == null) {
+            taskLedger = new TaskLedger();
+            getMonthsInOrder().forEach(taskLedger::monthAdded);
+            addListener(taskLedger);
+        }
+        return taskLedger;
+    }
+
+    /**
+     * Registers a listener of the changes of this TimeLogger and of its 
+     * months, days and tasks.
+     * @param listener 
+     */
+    public void addListener(TimeLoggerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes the given listener.
+     * @param listener 
+     */
+    public void removeListener(TimeLoggerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Passes the given event to every listener.
+     * @param event 
+     */
+    void notifyListeners(Consumer<TimeLoggerListener> event) {
+        for (TimeLoggerListener listener : listeners) {
+            event.accept(listener);
+        }
+    }
+
+    /**
+     * Saves every month, day and task into a binary snapshot file.
+     * @param path
+     * @throws IOException 
+     */
+    public void saveSnapshot(Path path) throws IOException {
+        TimeLoggerSnapshot.write(segmentStore != null ? new SegmentedMonthList() : months, path);
+    }
+
+    /**
+     * Creates a TimeLogger from a snapshot, which was saved by saveSnapshot.
+     * @param path
+     * @return TimeLogger
+     * @throws IOException If the file can not be read, or it is not a valid snapshot.
+     */
+    public static TimeLogger loadSnapshot(Path path) throws IOException {
+        TimeLogger timeLogger = new TimeLogger();
+        TimeLoggerSnapshot.read(path, timeLogger);
+        return timeLogger;
+    }
+
+    /**
+     * Opens a TimeLogger, which keeps every month in its own segment file
+     * in the given directory. A month is read on its first access, and at 
+     * most maxLoadedMonths months are kept in memory, the least recently 
+     * used one is dropped first, after it was written back, if it was changed.
+     * 
+     * A WorkMonth, its days and tasks should not be kept after other months 
+     * were accessed, as the changes of a dropped month are not saved.
+     * Call flush to save the changed months, which are still in memory.
+     * @param directory the directory of the segments, created if it does not exist
+     * @param maxLoadedMonths the maximum number of months in memory
+     * @throws IllegalArgumentException If maxLoadedMonths is less than 1.
+     * @return TimeLogger
+     * @throws IOException If the directory can not be read.
+     */
+    public static TimeLogger openSegmented(Path directory, int maxLoadedMonths) throws IOException {
+        TimeLogger timeLogger = new TimeLogger();
+        timeLogger.segmentStore = MonthSegmentStore.open(directory, timeLogger, maxLoadedMonths);
+        timeLogger.addListener(timeLogger.segmentStore);
+        return timeLogger;
+    }
+
+    /**
+     * Writes the changed months into their segment files. 
+     * Does nothing, if the TimeLogger was not opened by openSegmented.
+     * @throws IOException 
+     */
+    public void flush() throws IOException {
+        if (segmentStore != null) {
+            segmentStore.flush();
+        }
+    }
+
+    /**
+     * Returns with the segment store of a TimeLogger opened by openSegmented.
+     * @return MonthSegmentStore or null
+     */
+    MonthSegmentStore getSegmentStore() {
+        return segmentStore;
+    }
+
+    /**
+     * Months of the segment store in the order of adding, each month is
+     * loaded when it is got.
+     */
+    private class SegmentedMonthList extends AbstractList<WorkMonth> {
+
+        @Override
+        public WorkMonth get(int index) {
+            return segmentStore.get(segmentStore.dateAt(index));
+        }
+
+        @Override
+        public int size() {
+            return segmentStore.size();
+        }
+    }
+
+    /**
+     * Months of the segment store in chronological order, each month is
+     * loaded when the iterator reaches it.
+     */
+    private class SegmentedMonthCollection extends AbstractCollection<WorkMonth> {
+
+        @Override
+        public Iterator<WorkMonth> iterator() {
+            Iterator<YearMonth> dates = segmentStore.datesInOrder().iterator();
+            return new Iterator<WorkMonth>() {
+                @Override
+                public boolean hasNext() {
+                    return dates.hasNext();
+                }
+
+                @Override
+                public WorkMonth next() {
+                    return segmentStore.get(dates.next());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return segmentStore.size();
+        }
     }   
 }
\ No newline at end of file
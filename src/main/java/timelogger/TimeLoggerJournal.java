@@ -0,0 +1,842 @@
+package timelogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import timelogger.exceptions.NegativeMinutesOfWorkException;
+
+/**
+ * Append-only write-ahead journal of the changes of a TimeLogger.
+ *
+ * The journal directory holds a journal file and the snapshot of its
+ * generation. Opening the directory loads the snapshot, replays the
+ * journal into it, then records every further change as a binary record
+ * (int length, int CRC32, payload). A torn record at the end of the 
+ * journal, left by a crash, is dropped on the next open.
+ * 
+ * In the default mode a change returns only after its record was forced
+ * to disk; records of concurrent changes share a single force (group commit).
+ * In write-behind mode a change only enqueues its record, and a background
+ * writer flushes the queue, when it reaches the batch size, when the oldest
+ * record waited for the maximum delay, or on close. Until a flush, repeated 
+ * changes of the same task or day are coalesced into a single record.
+ *
+ * Compaction saves a snapshot of the next generation, then replaces the
+ * journal with an empty one of that generation, so a crash at any point
+ * leaves a consistent pair of snapshot and journal. It runs automatically
+ * after the given number of records, or on calling compact.
+ * Compaction reads the whole TimeLogger, so changes must not run
+ * concurrently with it.
+ *
+ * @author Dubi
+ */
+public class TimeLoggerJournal implements TimeLoggerListener, Closeable {
+
+    static final int MAGIC = 0x544C474A;
+    static final int VERSION = 1;
+
+    private static final String JOURNAL_FILE = "journal";
+    private static final String SNAPSHOT_FILE = "snapshot-";
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int NO_STRING = -1;
+
+    private static final byte MONTH_ADDED = 1;
+    private static final byte DAY_ADDED = 2;
+    private static final byte DAY_CHANGED = 3;
+    private static final byte TASK_ADDED = 4;
+    private static final byte TASK_REMOVED = 5;
+    private static final byte TASK_CHANGED = 6;
+    private static final byte MONTH_SEALED = 7;
+
+    private final Path directory;
+    private final long compactionThreshold;
+    private final TimeLogger timeLogger;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private List<PendingRecord> pending = new ArrayList<>();
+    private final Map<Object, PendingRecord> pendingByKey = new IdentityHashMap<>();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private FileChannel channel;
+    private long generation;
+    private long appendedRecords;
+    private long durableRecords;
+    private long recordsSinceCompaction;
+    private boolean flushing;
+    private IOException failure;
+    private boolean writeBehind;
+    private int maxBatchRecords;
+    private long maxDelayNanos;
+    private Thread writer;
+    private boolean closed;
+    private int queueDepth;
+    private long firstQueuedNanos;
+    private long coalescedRecords;
+    private long flushCount;
+    private long lastFlushNanos;
+    private long maxFlushNanos;
+
+    private TimeLoggerJournal(Path directory, long compactionThreshold, TimeLogger timeLogger) {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        this.timeLogger = timeLogger;
+    }
+
+    /**
+     * Opens the journal in the given directory, restores the TimeLogger
+     * from it and starts recording the changes of the TimeLogger.
+     * Every change returns after its record is on disk.
+     * @param directory
+     * @param compactionThreshold number of records, after which the journal
+     * is compacted, or 0 to compact only on calling compact
+     * @return TimeLoggerJournal
+     * @throws IOException If the journal can not be read, or it is corrupted.
+     */
+    public static TimeLoggerJournal open(Path directory, long compactionThreshold) throws IOException {
+        Files.createDirectories(directory);
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        if (!Files.exists(journalFile)) {
+            writeEmptyJournal(journalFile, 0);
+        }
+
+        long generation;
+        long validLength;
+        TimeLogger timeLogger;
+        try (FileChannel readChannel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a journal file: " + journalFile);
+            } else if (buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported journal version: " + journalFile);
+            }
+            generation = buffer.getLong();
+            Path snapshotFile = directory.resolve(SNAPSHOT_FILE + generation);
+            timeLogger = Files.exists(snapshotFile)
+                    ? TimeLogger.loadSnapshot(snapshotFile) : new TimeLogger();
+            validLength = replay(buffer, timeLogger);
+        }
+
+        TimeLoggerJournal journal = new TimeLoggerJournal(directory, compactionThreshold, timeLogger);
+        journal.generation = generation;
+        journal.channel = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+        journal.channel.truncate(validLength);
+        journal.channel.position(validLength);
+        timeLogger.addListener(journal);
+        return journal;
+    }
+
+    /**
+     * Opens the journal in write-behind mode, in which changes only enqueue
+     * their records, and a background thread writes them.
+     * A crash loses the changes of the last maxDelay at most.
+     * @param directory
+     * @param compactionThreshold number of records, after which the journal
+     * is compacted, or 0 to compact only on calling compact
+     * @param maxBatchRecords number of queued records, which starts a flush
+     * @param maxDelay the longest time a record waits in the queue
+     * @param unit the unit of maxDelay
+     * @return TimeLoggerJournal
+     * @throws IOException If the journal can not be read, or it is corrupted.
+     */
+    public static TimeLoggerJournal openWriteBehind(Path directory, long compactionThreshold, 
+            int maxBatchRecords, long maxDelay, TimeUnit unit) throws IOException {
+        if (maxBatchRecords < 1 || maxDelay < 1) {
+            throw new IllegalArgumentException("Batch size and delay must be positive.");
+        }
+        TimeLoggerJournal journal = open(directory, compactionThreshold);
+        journal.writeBehind = true;
+        journal.maxBatchRecords = maxBatchRecords;
+        journal.maxDelayNanos = unit.toNanos(maxDelay);
+        journal.writer = new Thread(journal::runWriter, "timelogger-journal-writer");
+        journal.writer.setDaemon(true);
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * Getter for the restored TimeLogger, whose changes are recorded.
+     * @return TimeLogger
+     */
+    public TimeLogger getTimeLogger() {
+        return timeLogger;
+    }
+
+    /**
+     * Returns with the number of records, which wait to be written.
+     * @return int
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns with the number of records, which were merged into a later 
+     * record of the same task or day before being written.
+     * @return long
+     */
+    public long getCoalescedRecordCount() {
+        lock.lock();
+        try {
+            return coalescedRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns with the number of writes to the journal file.
+     * @return long
+     */
+    public long getFlushCount() {
+        lock.lock();
+        try {
+            return flushCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns with the time of the last write and force of the journal file.
+     * @return long nanoseconds
+     */
+    public long getLastFlushLatencyNanos() {
+        lock.lock();
+        try {
+            return lastFlushNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns with the longest write and force of the journal file.
+     * @return long nanoseconds
+     */
+    public long getMaxFlushLatencyNanos() {
+        lock.lock();
+        try {
+            return maxFlushNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the queued records and waits until they are on disk.
+     */
+    public void flush() {
+        awaitDurable();
+    }
+
+    /**
+     * Saves a snapshot of the TimeLogger and empties the journal.
+     * @throws IOException
+     */
+    public void compact() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            writePending();
+            long nextGeneration = generation + 1;
+            timeLogger.saveSnapshot(directory.resolve(SNAPSHOT_FILE + nextGeneration));
+            Path journalFile = directory.resolve(JOURNAL_FILE);
+            channel.close();
+            writeEmptyJournal(journalFile, nextGeneration);
+            channel = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+            channel.position(HEADER_SIZE);
+            Files.deleteIfExists(directory.resolve(SNAPSHOT_FILE + generation));
+            generation = nextGeneration;
+            recordsSinceCompaction = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops recording the changes, writes the queued records 
+     * and closes the journal file.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        timeLogger.removeListener(this);
+        lock.lock();
+        try {
+            closed = true;
+            flushRequested.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            writePending();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void monthAdded(WorkMonth month) {
+        lock.lock();
+        try {
+            startRecord(MONTH_ADDED, month);
+            endRecord(null);
+            for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+                WorkDay day = month.getDay(dayOfMonth);
+                if (day != null) {
+                    appendDay(month, day);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void monthSealed(WorkMonth month) {
+        lock.lock();
+        try {
+            startRecord(MONTH_SEALED, month);
+            endRecord(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void workDayAdded(WorkMonth month, WorkDay day) {
+        lock.lock();
+        try {
+            appendDay(month, day);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void workDayChanged(WorkDay day, long oldRequiredMinPerDay) {
+        lock.lock();
+        try {
+            PendingRecord previous = pendingByKey.get(day);
+            if (previous != null && previous.type == DAY_ADDED) {
+                writeDay(day.getWorkMonth(), day);
+                replaceRecord(previous);
+            } else {
+                startRecord(DAY_CHANGED, day);
+                recordOut.writeLong(day.getRequiredMinPerday());
+                endRecord(day);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void taskAdded(WorkDay day, Task task) {
+        lock.lock();
+        try {
+            startRecord(TASK_ADDED, day);
+            writeTask(task);
+            endRecord(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void taskRemoved(WorkDay day, Task task, int index) {
+        lock.lock();
+        try {
+            startRecord(TASK_REMOVED, day);
+            recordOut.writeInt(index);
+            endRecord(null);
+            pendingByKey.remove(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    @Override
+    public void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+        lock.lock();
+        try {
+            PendingRecord previous = pendingByKey.get(task);
+            if (previous != null && previous.type == TASK_ADDED) {
+                startRecord(TASK_ADDED, day);
+                writeTask(task);
+                replaceRecord(previous);
+            } else {
+                startRecord(TASK_CHANGED, day);
+                recordOut.writeInt(day.getTaskList().indexOf(task));
+                writeTask(task);
+                endRecord(task);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        recorded();
+    }
+
+    /**
+     * Appends the records of the given day and of its tasks.
+     */
+    private void appendDay(WorkMonth month, WorkDay day) throws IOException {
+        writeDay(month, day);
+        endRecord(day);
+        for (Task task : day.getTaskList()) {
+            startRecord(TASK_ADDED, day);
+            writeTask(task);
+            endRecord(task);
+        }
+    }
+
+    private void writeDay(WorkMonth month, WorkDay day) throws IOException {
+        startRecord(DAY_ADDED, month);
+        recordOut.writeLong(day.getActualDay().toEpochDay());
+        recordOut.writeLong(day.getRequiredMinPerday());
+    }
+
+    private void startRecord(byte type, WorkMonth month) throws IOException {
+        record.reset();
+        recordOut.writeByte(type);
+        recordOut.writeInt(month.getDate().getYear());
+        recordOut.writeByte(month.getDate().getMonthValue());
+    }
+
+    /**
+     * Starts a record, which refers to the given day through its month and date.
+     */
+    private void startRecord(byte type, WorkDay day) throws IOException {
+        record.reset();
+        recordOut.writeByte(type);
+        YearMonth month = day.getWorkMonth().getDate();
+        recordOut.writeInt(month.getYear());
+        recordOut.writeByte(month.getMonthValue());
+        recordOut.writeLong(day.getActualDay().toEpochDay());
+    }
+
+    private void writeTask(Task task) throws IOException {
+        recordOut.writeInt(task.getTaskIdCode());
+        writeString(task.getTaskIdCode() == TaskIds.NO_CODE ? task.getTaskId() : null);
+        writeString(task.getComment());
+        recordOut.writeShort(task.getStartMinute());
+        recordOut.writeShort(task.getEndMinute());
+    }
+
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            recordOut.writeInt(NO_STRING);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            recordOut.writeInt(bytes.length);
+            recordOut.write(bytes);
+        }
+    }
+
+    /**
+     * Adds the current record to the queue. A queued change record of the 
+     * same key is dropped, as the current record holds the whole new state.
+     * @param key the task or day of the record, or null
+     */
+    private void endRecord(Object key) {
+        PendingRecord pendingRecord = new PendingRecord(record.toByteArray());
+        pending.add(pendingRecord);
+        if (queueDepth++ == 0) {
+            firstQueuedNanos = System.nanoTime();
+        }
+        appendedRecords++;
+        recordsSinceCompaction++;
+        if (key != null) {
+            PendingRecord previous = pendingByKey.put(key, pendingRecord);
+            if (previous != null && previous.type == pendingRecord.type 
+                    && (previous.type == TASK_CHANGED || previous.type == DAY_CHANGED)) {
+                previous.payload = null;
+                queueDepth--;
+                coalescedRecords++;
+            }
+        }
+        if (writeBehind && (queueDepth == 1 || queueDepth >= maxBatchRecords)) {
+            flushRequested.signal();
+        }
+    }
+
+    /**
+     * Overwrites the given queued record with the current record. Used for 
+     * a change of a task or day, whose adding record is still in the queue.
+     */
+    private void replaceRecord(PendingRecord previous) {
+        previous.payload = record.toByteArray();
+        appendedRecords++;
+        coalescedRecords++;
+    }
+
+    /**
+     * Called after the records of a change were queued. Waits for them to be
+     * on disk, except in write-behind mode, then compacts, if it is due.
+     */
+    private void recorded() {
+        if (writeBehind) {
+            lock.lock();
+            try {
+                if (failure != null) {
+                    throw new UncheckedIOException("The journal failed to write earlier.", failure);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            awaitDurable();
+        }
+        boolean compactionDue;
+        lock.lock();
+        try {
+            compactionDue = compactionThreshold > 0 && recordsSinceCompaction >= compactionThreshold;
+        } finally {
+            lock.unlock();
+        }
+        if (compactionDue) {
+            try {
+                compact();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Waits until every record queued so far is on disk. The first waiting
+     * thread writes and forces the queued records of every waiting thread.
+     */
+    private void awaitDurable() {
+        lock.lock();
+        try {
+            long target = appendedRecords;
+            while (durableRecords < target) {
+                if (failure != null) {
+                    throw new UncheckedIOException("The journal failed to write earlier.", failure);
+                } else if (flushing) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flushQueue();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Body of the write-behind thread: flushes the queue, when it is full,
+     * or when its oldest record waited for maxDelay, until the journal is closed.
+     */
+    private void runWriter() {
+        lock.lock();
+        try {
+            while (!closed && failure == null) {
+                long waitedNanos = System.nanoTime() - firstQueuedNanos;
+                if (queueDepth == 0) {
+                    flushRequested.awaitUninterruptibly();
+                } else if (queueDepth < maxBatchRecords && waitedNanos < maxDelayNanos) {
+                    try {
+                        flushRequested.awaitNanos(maxDelayNanos - waitedNanos);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                } else if (flushing) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    try {
+                        flushQueue();
+                    } catch (UncheckedIOException e) {
+                        // kept in failure, reported to the next change
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the queue and writes it without holding the lock.
+     * Called with the lock held, when no other flush runs.
+     */
+    private void flushQueue() {
+        flushing = true;
+        List<PendingRecord> batch = takeQueue();
+        long batchRecords = appendedRecords;
+        lock.unlock();
+        long start = System.nanoTime();
+        try {
+            write(batch);
+        } catch (IOException e) {
+            lock.lock();
+            failure = e;
+            flushing = false;
+            flushed.signalAll();
+            throw new UncheckedIOException(e);
+        }
+        lock.lock();
+        flushing = false;
+        durableRecords = batchRecords;
+        recordFlush(System.nanoTime() - start);
+        flushed.signalAll();
+    }
+
+    /**
+     * Writes the queued records, while holding the lock.
+     */
+    private void writePending() throws IOException {
+        long start = System.nanoTime();
+        write(takeQueue());
+        durableRecords = appendedRecords;
+        recordFlush(System.nanoTime() - start);
+    }
+
+    private List<PendingRecord> takeQueue() {
+        List<PendingRecord> batch = pending;
+        pending = new ArrayList<>();
+        pendingByKey.clear();
+        queueDepth = 0;
+        return batch;
+    }
+
+    private void recordFlush(long nanos) {
+        flushCount++;
+        lastFlushNanos = nanos;
+        maxFlushNanos = Math.max(maxFlushNanos, nanos);
+    }
+
+    /**
+     * Frames the given records, then writes and forces them.
+     */
+    private void write(List<PendingRecord> batch) throws IOException {
+        int size = 0;
+        for (PendingRecord pendingRecord : batch) {
+            if (pendingRecord.payload != null) {
+                size += RECORD_HEADER_SIZE + pendingRecord.payload.length;
+            }
+        }
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (PendingRecord pendingRecord : batch) {
+            byte[] payload = pendingRecord.payload;
+            if (payload != null) {
+                crc.reset();
+                crc.update(payload);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            }
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private static void writeEmptyJournal(Path journalFile, long generation) throws IOException {
+        Path temporaryFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putInt(VERSION).putLong(generation);
+        header.flip();
+        try (FileChannel newChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                newChannel.write(header);
+            }
+            newChannel.force(true);
+        }
+        Files.move(temporaryFile, journalFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Applies every complete and intact record of the buffer to the TimeLogger.
+     * @return long the length of the valid part of the journal
+     * @throws IOException If a record does not match the state of the TimeLogger.
+     */
+    private static long replay(ByteBuffer buffer, TimeLogger timeLogger) throws IOException {
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            checksum.reset();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != expectedCrc) {
+                buffer.position(start);
+                break;
+            }
+            try {
+                apply(payload, timeLogger);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                    | DateTimeException | IllegalStateException e) {
+                throw new IOException("The journal does not match its snapshot at " + start, e);
+            }
+            buffer.position(start + RECORD_HEADER_SIZE + length);
+        }
+        return buffer.position();
+    }
+
+    private static void apply(ByteBuffer payload, TimeLogger timeLogger) {
+        byte type = payload.get();
+        YearMonth date = YearMonth.of(payload.getInt(), payload.get());
+        if (type == MONTH_ADDED) {
+            if (!timeLogger.tryAddMonth(new WorkMonth(date.getYear(), date.getMonthValue())).isValid()) {
+                throw new IllegalStateException("Month already exists: " + date);
+            }
+            return;
+        }
+        WorkMonth month = timeLogger.getMonth(date);
+        if (month == null) {
+            throw new IllegalStateException("Missing month: " + date);
+        } else if (type == MONTH_SEALED) {
+            month.seal();
+            return;
+        }
+        LocalDate actualDay = LocalDate.ofEpochDay(payload.getLong());
+        if (type == DAY_ADDED) {
+            month.putWorkDay(new WorkDay(actualDay, payload.getLong()));
+            return;
+        }
+        WorkDay day = month.getDay(actualDay.getDayOfMonth());
+        if (day == null || !day.getActualDay().equals(actualDay)) {
+            throw new IllegalStateException("Missing day: " + actualDay);
+        }
+        List<Task> tasks = day.getTaskList();
+        switch (type) {
+            case DAY_CHANGED:
+                try {
+                    day.setRequiredMinPerday(payload.getLong());
+                } catch (NegativeMinutesOfWorkException e) {
+                    throw new IllegalStateException(e.getMessage());
+                }
+                break;
+            case TASK_ADDED:
+                day.putTask(readTask(payload, null));
+                break;
+            case TASK_REMOVED:
+                day.deleteTask(tasks.get(payload.getInt()));
+                break;
+            case TASK_CHANGED:
+                readTask(payload, tasks.get(payload.getInt()));
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + type);
+        }
+    }
+
+    /**
+     * Reads a task record into the given task, or into a new task, if it is null.
+     */
+    private static Task readTask(ByteBuffer payload, Task task) {
+        int taskIdCode = payload.getInt();
+        String uncodedTaskId = readString(payload);
+        String comment = CommentDictionary.intern(readString(payload));
+        short startMinute = payload.getShort();
+        short endMinute = payload.getShort();
+        if (taskIdCode < TaskIds.NO_CODE || taskIdCode >= TaskIds.CODE_COUNT) {
+            throw new IllegalStateException("Invalid task id code: " + taskIdCode);
+        }
+        if (task == null) {
+            return Task.restore(taskIdCode, uncodedTaskId, comment, startMinute, endMinute);
+        }
+        task.restoreState(taskIdCode, uncodedTaskId, comment, startMinute, endMinute);
+        return task;
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A queued record. Its payload is null, if a later record replaced it.
+     */
+    private static class PendingRecord {
+
+        private final byte type;
+        private byte[] payload;
+
+        PendingRecord(byte[] payload) {
+            this.type = payload[0];
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package timelogger;
+
+/**
+ * Listener of the changes of a TimeLogger and of its months, days and tasks.
+ * The methods are called after the change was made, on the thread, 
+ * which made the change. An added month or day may already hold days and tasks.
+ *
+ * @author Dubi
+ */
+public interface TimeLoggerListener {
+
+    /**
+     * Called after a month was added to the TimeLogger.
+     * @param month
+     */
+    default void monthAdded(WorkMonth month) {
+    }
+
+    /**
+     * Called after one of the months was sealed.
+     * @param month
+     */
+    default void monthSealed(WorkMonth month) {
+    }
+
+    /**
+     * Called after a day was added to one of the months.
+     * @param month
+     * @param day 
+     */
+    default void workDayAdded(WorkMonth month, WorkDay day) {
+    }
+
+    /**
+     * Called after the requiredMinPerDay of a day was changed.
+     * @param day
+     * @param oldRequiredMinPerDay 
+     */
+    default void workDayChanged(WorkDay day, long oldRequiredMinPerDay) {
+    }
+
+    /**
+     * Called after a task was added to one of the days.
+     * @param day
+     * @param task 
+     */
+    default void taskAdded(WorkDay day, Task task) {
+    }
+
+    /**
+     * Called after a task was removed from one of the days.
+     * @param day
+     * @param task
+     * @param index the index of the task before it was removed
+     */
+    default void taskRemoved(WorkDay day, Task task, int index) {
+    }
+
+    /**
+     * Called after the id, the comment or the times of a task were changed.
+     * @param day
+     * @param task
+     * @param oldTaskId the id before the change
+     * @param oldMinutes the finished minutes before the change
+     */
+    default void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+    }
+}
@@ -0,0 +1,186 @@
+package timelogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters, failure counts and latency histograms of the operations
+ * of the domain classes, exported as a platform MXBean.
+ *
+ * The metrics are recorded only, if the JVM is started with
+ * -Dtimelogger.metrics=true. As ENABLED is a static final constant,
+ * the JIT compiler removes the calls of start, record and recordFailure
+ * from the domain classes, when the metrics are disabled. The adding
+ * methods and getSumPerMonth check ENABLED and their Flight Recorder
+ * event first, and call the not measured code directly, so they stay
+ * small to inline. Internally they use the not measured validations,
+ * so a rejected call is counted once, by its own operation.
+ *
+ * @author Dubi
+ */
+public final class TimeLoggerMetrics implements TimeLoggerMetricsMXBean {
+
+    static final boolean ENABLED = Boolean.getBoolean("timelogger.metrics");
+    static final String OBJECT_NAME = "timelogger:type=TimeLoggerMetrics";
+
+    private static final TimeLoggerMetrics INSTANCE = new TimeLoggerMetrics();
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    /**
+     * The measured operations.
+     */
+    public enum Operation {
+        ADD_TASK,
+        ADD_WORK_DAY,
+        GET_SUM_PER_MONTH,
+        VALIDATE_TASK,
+        VALIDATE_WORK_DAY
+    }
+
+    private final LongAdder[] operationCounts = new LongAdder[Operation.values().length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final Map<String, LongAdder> failureCounts = new ConcurrentHashMap<>();
+
+    TimeLoggerMetrics() {
+        for (int i = 0; i < operationCounts.length; i++) {
+            operationCounts[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Getter for the metrics of the domain classes.
+     * @return TimeLoggerMetrics
+     */
+    public static TimeLoggerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, if they are not
+     * registered yet. Called on class loading, when the metrics are enabled.
+     * @throws IllegalStateException If the MXBean can not be registered.
+     */
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered already
+        } catch (JMException e) {
+            throw new IllegalStateException("The metrics can not be registered.", e);
+        }
+    }
+
+    /**
+     * Returns with the start time of an operation.
+     * @return long nanoTime or 0, if the metrics are disabled
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a call of the given operation, which started at the given time.
+     * @param operation
+     * @param startNanos the value of start
+     */
+    static void record(Operation operation, long startNanos) {
+        if (ENABLED) {
+            INSTANCE.add(operation, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a call of the given operation, which failed with the given exception.
+     * @param operation
+     * @param exception
+     */
+    static void recordFailure(Operation operation, Exception exception) {
+        if (ENABLED) {
+            INSTANCE.addFailure(operation, exception.getClass());
+        }
+    }
+
+    /**
+     * Records a call of the given operation, which returned the given result.
+     * Only results, which are not valid, are recorded, by their exception.
+     * @param operation
+     * @param result
+     */
+    static void recordFailure(Operation operation, ValidationResult result) {
+        if (ENABLED && !result.isValid()) {
+            INSTANCE.addFailure(operation, result.toException().getClass());
+        }
+    }
+
+    void add(Operation operation, long nanos) {
+        operationCounts[operation.ordinal()].increment();
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    void addFailure(Operation operation, Class<?> exceptionType) {
+        failureCounts.computeIfAbsent(operation + ":" + exceptionType.getSimpleName(),
+                key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return perOperation(operation -> operationCounts[operation.ordinal()].sum());
+    }
+
+    @Override
+    public Map<String, Long> getFailureCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        failureCounts.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getP50LatencyNanos() {
+        return perOperation(operation -> latencies[operation.ordinal()].getPercentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        return perOperation(operation -> latencies[operation.ordinal()].getPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencyNanos() {
+        return perOperation(operation -> latencies[operation.ordinal()].getMax());
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < operationCounts.length; i++) {
+            operationCounts[i].reset();
+            latencies[i].reset();
+        }
+        failureCounts.clear();
+    }
+
+    private static Map<String, Long> perOperation(ToLongFunction<Operation> value) {
+        Map<String, Long> values = new TreeMap<>();
+        for (Operation operation : Operation.values()) {
+            values.put(operation.name(), value.applyAsLong(operation));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,55 @@
+package timelogger;
+
+import java.util.Map;
+
+/**
+ * Management interface of TimeLoggerMetrics, registered in the platform
+ * MBean server as timelogger:type=TimeLoggerMetrics. Every map is keyed
+ * by the name of the operation.
+ *
+ * @author Dubi
+ */
+public interface TimeLoggerMetricsMXBean {
+
+    /**
+     * Checks if the metrics are recorded, see TimeLoggerMetrics.ENABLED.
+     * @return Boolean
+     */
+    boolean isEnabled();
+
+    /**
+     * Getter for the number of calls per operation.
+     * @return Map of counts
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Getter for the number of failed calls, keyed by the operation and
+     * the simple name of the exception, e.g. ADD_TASK:NotSeparatedTimesException.
+     * @return Map of counts
+     */
+    Map<String, Long> getFailureCounts();
+
+    /**
+     * Getter for the median latency per operation.
+     * @return Map of nanoseconds
+     */
+    Map<String, Long> getP50LatencyNanos();
+
+    /**
+     * Getter for the 99th percentile of the latency per operation.
+     * @return Map of nanoseconds
+     */
+    Map<String, Long> getP99LatencyNanos();
+
+    /**
+     * Getter for the largest latency per operation.
+     * @return Map of nanoseconds
+     */
+    Map<String, Long> getMaxLatencyNanos();
+
+    /**
+     * Removes every count and latency.
+     */
+    void reset();
+}
@@ -0,0 +1,404 @@
+package timelogger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import timelogger.exceptions.EmptyTimeFieldException;
+import timelogger.exceptions.InvalidTaskIdException;
+import timelogger.exceptions.NegativeMinutesOfWorkException;
+import timelogger.exceptions.NoTaskIdException;
+import timelogger.exceptions.NotExpectedTimeOrderException;
+
+/**
+ * Headless HTTP front end of a ConcurrentTimeLogger, with JSON responses.
+ *
+ * GET  /months                    the months with their totals
+ * GET  /months/{yyyy-MM}          a month with its days
+ * GET  /days/{yyyy-MM-dd}         a day with its tasks
+ * GET  /statistics                the totals of all months
+ * POST /days                      date, requiredMinPerDay, weekendEnabled
+ * POST /tasks                     date, taskId, comment, startTime, endTime
+ *
+ * POST parameters are sent as an application/x-www-form-urlencoded body.
+ * Invalid input is answered with 400, missing months and days with 404,
+ * any other failure with 500, all with {"error": message}.
+ *
+ * Without -Dsun.net.httpserver.nodelay=true every keep-alive response
+ * waits for the delayed ACK of the client, about 40 ms. The property is
+ * read once by the JDK, so TLOG16Java.main sets it, before the first
+ * server is started.
+ *
+ * Every exchange is handled on its own virtual thread, if the JVM has them,
+ * otherwise on a cached thread pool.
+ *
+ * @author Dubi
+ */
+public class TimeLoggerServer implements Closeable {
+
+    private static final int BACKLOG = 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final long DEFAULT_REQUIRED_MIN_PER_DAY = 450;
+    static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final ConcurrentTimeLogger timeLogger;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private TimeLoggerServer(ConcurrentTimeLogger timeLogger, HttpServer server, ExecutorService executor) {
+        this.timeLogger = timeLogger;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server on the given address.
+     * @param timeLogger
+     * @param address port 0 picks a free port
+     * @return TimeLoggerServer
+     * @throws IOException If the address can not be bound.
+     */
+    public static TimeLoggerServer start(ConcurrentTimeLogger timeLogger, InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = newRequestExecutor();
+        TimeLoggerServer timeLoggerServer = new TimeLoggerServer(timeLogger, server, executor);
+        server.createContext("/", timeLoggerServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return timeLoggerServer;
+    }
+
+    /**
+     * Getter for the bound address.
+     * @return InetSocketAddress
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops the server, waits a second for the running exchanges.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns with a virtual thread per task executor, if the JVM has one,
+     * otherwise with a cached thread pool.
+     * @return ExecutorService
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            try {
+                if (path.length == 2 && "months".equals(path[1])) {
+                    requireMethod(method, "GET");
+                    send(exchange, 200, monthsJson());
+                } else if (path.length == 3 && "months".equals(path[1])) {
+                    requireMethod(method, "GET");
+                    sendMonth(exchange, YearMonth.parse(path[2]));
+                } else if (path.length == 3 && "days".equals(path[1])) {
+                    requireMethod(method, "GET");
+                    sendDay(exchange, LocalDate.parse(path[2]));
+                } else if (path.length == 2 && "statistics".equals(path[1])) {
+                    requireMethod(method, "GET");
+                    send(exchange, 200, statisticsJson());
+                } else if (path.length == 2 && "days".equals(path[1])) {
+                    requireMethod(method, "POST");
+                    addDay(exchange, readForm(exchange));
+                } else if (path.length == 2 && "tasks".equals(path[1])) {
+                    requireMethod(method, "POST");
+                    addTask(exchange, readForm(exchange));
+                } else {
+                    sendError(exchange, 404, "No such resource.");
+                }
+            } catch (MethodNotAllowedException e) {
+                sendError(exchange, 405, e.getMessage());
+            } catch (DateTimeParseException e) {
+                sendError(exchange, 400, "Not a valid date or time: " + e.getParsedString());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Internal error: " + e);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendMonth(HttpExchange exchange, YearMonth date) throws IOException {
+        WorkMonth month = timeLogger.getTimeLogger().getMonth(date);
+        if (month == null) {
+            sendError(exchange, 404, "There is no month " + date + ".");
+            return;
+        }
+        StringBuilder json = new StringBuilder();
+        appendMonth(json, month);
+        json.setLength(json.length() - 1);
+        json.append(",\"days\":[");
+        String separator = "";
+        for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+            WorkDay day = month.getDay(dayOfMonth);
+            if (day != null) {
+                json.append(separator);
+                appendDay(json, day);
+                separator = ",";
+            }
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    private void sendDay(HttpExchange exchange, LocalDate date) throws IOException {
+        List<Task> tasks;
+        try {
+            tasks = timeLogger.getTasks(date);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 404, e.getMessage());
+            return;
+        }
+        WorkDay day = timeLogger.getTimeLogger().getMonth(YearMonth.from(date))
+                .getDay(date.getDayOfMonth());
+        StringBuilder json = new StringBuilder();
+        appendDay(json, day);
+        json.setLength(json.length() - 1);
+        json.append(",\"tasks\":[");
+        String separator = "";
+        for (Task task : tasks) {
+            json.append(separator);
+            appendTask(json, task);
+            separator = ",";
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    private void addDay(HttpExchange exchange, Map<String, String> form) throws IOException {
+        LocalDate date = LocalDate.parse(requireParameter(form, "date"));
+        String requiredMinPerDay = form.get("requiredMinPerDay");
+        WorkDay day;
+        try {
+            day = new WorkDay(requiredMinPerDay == null ? DEFAULT_REQUIRED_MIN_PER_DAY
+                    : parseLong(requiredMinPerDay, "requiredMinPerDay"),
+                    date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        } catch (NegativeMinutesOfWorkException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        ValidationResult result = timeLogger.tryAddWorkDay(day,
+                Boolean.parseBoolean(form.get("weekendEnabled")));
+        if (result.isValid()) {
+            StringBuilder json = new StringBuilder();
+            appendDay(json, day);
+            send(exchange, 201, json.toString());
+        } else {
+            sendError(exchange, 400, result.getMessage());
+        }
+    }
+
+    private void addTask(HttpExchange exchange, Map<String, String> form) throws IOException {
+        LocalDate date = LocalDate.parse(requireParameter(form, "date"));
+        LocalTime startTime = TimeParser.parse(requireParameter(form, "startTime"));
+        LocalTime endTime = TimeParser.parse(requireParameter(form, "endTime"));
+        Task task;
+        try {
+            task = new Task(form.get("taskId"), form.get("comment"), startTime.getHour(),
+                    startTime.getMinute(), endTime.getHour(), endTime.getMinute());
+        } catch (NotExpectedTimeOrderException | InvalidTaskIdException
+                | NoTaskIdException | EmptyTimeFieldException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+        ValidationResult result;
+        try {
+            result = timeLogger.tryAddTask(date, task);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 404, e.getMessage());
+            return;
+        }
+        if (result.isValid()) {
+            StringBuilder json = new StringBuilder();
+            appendTask(json, task);
+            send(exchange, 201, json.toString());
+        } else {
+            sendError(exchange, 400, result.getMessage());
+        }
+    }
+
+    private String monthsJson() {
+        StringBuilder json = new StringBuilder("[");
+        String separator = "";
+        for (WorkMonth month : timeLogger.getTimeLogger().getMonthsInOrder()) {
+            json.append(separator);
+            appendMonth(json, month);
+            separator = ",";
+        }
+        return json.append(']').toString();
+    }
+
+    private String statisticsJson() {
+        long monthCount = 0;
+        long dayCount = 0;
+        long sum = 0;
+        long requiredMin = 0;
+        for (WorkMonth month : timeLogger.getTimeLogger().getMonthsInOrder()) {
+            monthCount++;
+            dayCount += month.getNumberOfDays();
+            sum += month.getSumPerMonth();
+            requiredMin += month.getRequiredMinPerMonth();
+        }
+        return "{\"monthCount\":" + monthCount + ",\"dayCount\":" + dayCount
+                + ",\"sumMin\":" + sum + ",\"requiredMin\":" + requiredMin
+                + ",\"extraMin\":" + (sum - requiredMin) + '}';
+    }
+
+    private static void appendMonth(StringBuilder json, WorkMonth month) {
+        json.append("{\"date\":\"").append(month.getDate())
+                .append("\",\"dayCount\":").append(month.getNumberOfDays())
+                .append(",\"sumPerMonth\":").append(month.getSumPerMonth())
+                .append(",\"requiredMinPerMonth\":").append(month.getRequiredMinPerMonth())
+                .append(",\"extraMinPerMonth\":").append(month.getExtraMinPerMonth())
+                .append('}');
+    }
+
+    private static void appendDay(StringBuilder json, WorkDay day) {
+        json.append("{\"date\":\"").append(day.getActualDay())
+                .append("\",\"sumPerDay\":").append(day.getSumPerDay())
+                .append(",\"requiredMinPerDay\":").append(day.getRequiredMinPerday())
+                .append(",\"extraMinPerDay\":").append(day.getExtraMinPerDay())
+                .append('}');
+    }
+
+    private static void appendTask(StringBuilder json, Task task) {
+        json.append("{\"taskId\":");
+        appendString(json, task.getTaskId());
+        json.append(",\"comment\":");
+        appendString(json, task.getComment());
+        json.append(",\"startTime\":");
+        appendString(json, task.getStartTime() == null ? null : task.getStartTime().toString());
+        json.append(",\"endTime\":");
+        appendString(json, task.getEndTime() == null ? null : task.getEndTime().toString());
+        json.append(",\"minutes\":").append(task.getFinishedMinutes()).append('}');
+    }
+
+    /**
+     * Appends the given string as a JSON string literal, or null.
+     * @param json
+     * @param value
+     */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static String requireParameter(Map<String, String> form, String name) {
+        String value = form.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing parameter " + name + ".");
+        }
+        return value.trim();
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a valid number in " + name + ".");
+        }
+    }
+
+    private static void requireMethod(String method, String expected) throws MethodNotAllowedException {
+        if (!expected.equals(method)) {
+            throw new MethodNotAllowedException("Only " + expected + " is allowed.");
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendString(json, message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Thrown, if a resource is requested with a method, which it does not support.
+     */
+    private static class MethodNotAllowedException extends Exception {
+
+        MethodNotAllowedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
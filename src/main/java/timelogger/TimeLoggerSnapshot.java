@@ -0,0 +1,252 @@
+package timelogger;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the months, days and tasks of a TimeLogger.
+ * 
+ * Layout, all numbers big endian:
+ * header      int magic, int version
+ * strings     int count, then per string int length and UTF-8 bytes
+ * months      int count, then per month int year, int month, int flags,
+ *             int dayCount
+ * days        int epochDay, long requiredMinPerDay, int taskCount
+ * tasks       fixed 12 byte records: int taskIdRef, int commentRef, 
+ *             short startMinute, short endMinute
+ * 
+ * A taskIdRef is the code from TaskIds, -1 for no id, or -2 - i for 
+ * the not encodable id at index i of the strings. A commentRef is 
+ * -1 for no comment, otherwise the index of the comment in the strings.
+ * The flags of a month are SEALED_FLAG, if the month is sealed, so it is
+ * sealed again on reading. Version 1 files have no flags.
+ * The file is written to a temporary file first, then moved in place,
+ * and it is read through a MappedByteBuffer.
+ *
+ * @author Dubi
+ */
+final class TimeLoggerSnapshot {
+
+    static final int MAGIC = 0x544C4753;
+    static final int VERSION = 2;
+
+    private static final int VERSION_WITHOUT_FLAGS = 1;
+    private static final int SEALED_FLAG = 1;
+
+    private static final int NO_REF = -1;
+    private static final int TASK_RECORD_SIZE = 12;
+
+    private TimeLoggerSnapshot() {
+    }
+
+    /**
+     * Writes the given months into the given file.
+     * @param months
+     * @param path
+     * @throws IOException 
+     */
+    static void write(List<WorkMonth> months, Path path) throws IOException {
+        Map<String, Integer> stringRefs = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        long size = 3 * Integer.BYTES + Integer.BYTES;
+        for (WorkMonth month : months) {
+            size += 4 * Integer.BYTES;
+            for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+                WorkDay day = month.getDay(dayOfMonth);
+                if (day == null) {
+                    continue;
+                }
+                size += Integer.BYTES + Long.BYTES + Integer.BYTES 
+                        + (long) day.getTaskList().size() * TASK_RECORD_SIZE;
+                for (Task task : day.getTaskList()) {
+                    if (task.getTaskIdCode() == TaskIds.NO_CODE && task.getTaskId() != null) {
+                        size += addString(task.getTaskId(), stringRefs, strings);
+                    }
+                    if (task.getComment() != null) {
+                        size += addString(task.getComment(), stringRefs, strings);
+                    }
+                }
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The snapshot would be larger than 2 GB.");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.size());
+        for (byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+        buffer.putInt(months.size());
+        for (WorkMonth month : months) {
+            buffer.putInt(month.getDate().getYear())
+                    .putInt(month.getDate().getMonthValue())
+                    .putInt(month.isSealed() ? SEALED_FLAG : 0)
+                    .putInt(month.getNumberOfDays());
+            for (int dayOfMonth = 1; dayOfMonth <= WorkMonth.MAX_DAYS_PER_MONTH; dayOfMonth++) {
+                WorkDay day = month.getDay(dayOfMonth);
+                if (day != null) {
+                    writeDay(day, buffer, stringRefs);
+                }
+            }
+        }
+        buffer.flip();
+
+        Path temporaryFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, 
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, 
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int addString(String string, Map<String, Integer> stringRefs, List<byte[]> strings) {
+        if (stringRefs.containsKey(string)) {
+            return 0;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        stringRefs.put(string, strings.size());
+        strings.add(bytes);
+        return Integer.BYTES + bytes.length;
+    }
+
+    private static void writeDay(WorkDay day, ByteBuffer buffer, Map<String, Integer> stringRefs) {
+        List<Task> tasks = day.getTaskList();
+        buffer.putInt((int) day.getActualDay().toEpochDay())
+                .putLong(day.getRequiredMinPerday())
+                .putInt(tasks.size());
+        for (Task task : tasks) {
+            int taskIdRef = task.getTaskIdCode();
+            if (taskIdRef == TaskIds.NO_CODE && task.getTaskId() != null) {
+                taskIdRef = -2 - stringRefs.get(task.getTaskId());
+            }
+            String comment = task.getComment();
+            buffer.putInt(taskIdRef)
+                    .putInt(comment == null ? NO_REF : stringRefs.get(comment))
+                    .putShort(task.getStartMinute())
+                    .putShort(task.getEndMinute());
+        }
+    }
+
+    /**
+     * Reads the months of the given file into the given, empty time logger.
+     * @param path
+     * @param timeLogger
+     * @throws IOException If the file can not be read, or it is not a valid snapshot.
+     */
+    static void read(Path path, TimeLogger timeLogger) throws IOException {
+        for (WorkMonth month : readMonths(path)) {
+            if (!timeLogger.tryAddMonth(month).isValid()) {
+                throw new IOException("Duplicated month in snapshot: " + month.getDate());
+            }
+        }
+    }
+
+    /**
+     * Reads the months of the given file, without adding them to a time logger.
+     * @param path
+     * @return List of months in the order of the file
+     * @throws IOException If the file can not be read, or it is not a valid snapshot.
+     */
+    static List<WorkMonth> readMonths(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The snapshot is larger than 2 GB.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readMonths(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException 
+                | NegativeArraySizeException | DateTimeException e) {
+            throw new IOException("The snapshot is corrupted: " + path, e);
+        }
+    }
+
+    private static List<WorkMonth> readMonths(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file.");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION && version != VERSION_WITHOUT_FLAGS) {
+            throw new IOException("Unsupported snapshot version.");
+        }
+
+        int stringCount = buffer.getInt();
+        String[] strings = new String[stringCount];
+        String[] comments = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int monthCount = buffer.getInt();
+        List<WorkMonth> months = new ArrayList<>(Math.min(monthCount, buffer.remaining()));
+        for (int i = 0; i < monthCount; i++) {
+            WorkMonth month = new WorkMonth(buffer.getInt(), buffer.getInt());
+            int flags = version == VERSION_WITHOUT_FLAGS ? 0 : buffer.getInt();
+            int dayCount = buffer.getInt();
+            for (int j = 0; j < dayCount; j++) {
+                WorkDay day = new WorkDay(LocalDate.ofEpochDay(buffer.getInt()), buffer.getLong());
+                if (month.getDay(day.getActualDay().getDayOfMonth()) != null) {
+                    throw new IOException("Duplicated day in snapshot: " + day.getActualDay());
+                }
+                int taskCount = buffer.getInt();
+                for (int k = 0; k < taskCount; k++) {
+                    day.putTask(readTask(buffer, strings, comments));
+                }
+                month.putWorkDay(day);
+            }
+            if ((flags & SEALED_FLAG) != 0) {
+                month.seal();
+            }
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static Task readTask(ByteBuffer buffer, String[] strings, String[] comments) throws IOException {
+        int taskIdRef = buffer.getInt();
+        int commentRef = buffer.getInt();
+        short startMinute = buffer.getShort();
+        short endMinute = buffer.getShort();
+        if (!isMinuteOfDay(startMinute) || !isMinuteOfDay(endMinute)) {
+            throw new IOException("Invalid task time in snapshot.");
+        } else if (taskIdRef >= TaskIds.CODE_COUNT) {
+            throw new IOException("Invalid task id in snapshot.");
+        }
+
+        String uncodedTaskId = taskIdRef < NO_REF ? strings[-2 - taskIdRef] : null;
+        int taskIdCode = taskIdRef < NO_REF ? TaskIds.NO_CODE : taskIdRef;
+        String comment = null;
+        if (commentRef != NO_REF) {
+            comment = comments[commentRef];
+            if (comment == null) {
+                comment = CommentDictionary.intern(strings[commentRef]);
+                comments[commentRef] = comment;
+            }
+        }
+        return Task.restore(taskIdCode, uncodedTaskId, comment, startMinute, endMinute);
+    }
+
+    private static boolean isMinuteOfDay(short minute) {
+        return minute >= MinuteOfDay.NONE && minute < MinuteOfDay.MINUTES_PER_DAY;
+    }
+}
@@ -1,11 +1,15 @@
 package timelogger;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Scanner;
 import java.util.stream.Collectors;
 import timelogger.exceptions.EmptyTimeFieldException;
 import timelogger.exceptions.InvalidTaskIdException;
@@ -19,12 +23,26 @@ import timelogger.exceptions.NotTheSameMonthException;
 import timelogger.exceptions.WeekendNotEnabledException;
 
 /**
+ * Text UI of a TimeLogger.
+ * 
+ * In batch mode the same commands and answers are read from the input
+ * line by line, e.g. from a script, but the menu, the prompts and the
+ * selection lists are not printed. The output is flushed only before
+ * reading input in interactive mode, and at the end.
  * 
  * @author Dubi
  */
 public class TimeLoggerUI {
 
-    private final TimeLogger timeLogger = new TimeLogger();
+    private static final int LISTING_PAGE_SIZE = 50;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final TimeLogger timeLogger;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private final boolean isInteractive;
+    private final ListingRenderer listingRenderer;
+    private long commandCount;
     private final int listingToIndexOffset = -1;
     private final List<String> instructions = List.of(
         "0. Exit",
@@ -39,35 +57,72 @@ public class TimeLoggerUI {
         "9. Modify task",
         "10. Statistics");
 
+    public TimeLoggerUI() {
+        this(new TimeLogger());
+    }
+
+    public TimeLoggerUI(TimeLogger timeLogger) {
+        this(timeLogger, new BufferedReader(new InputStreamReader(System.in)), 
+                new PrintWriter(new OutputStreamWriter(System.out)), true);
+    }
+
+    public TimeLoggerUI(TimeLogger timeLogger, BufferedReader in, PrintWriter out, boolean isInteractive) {
+        this.timeLogger = timeLogger;
+        this.in = in;
+        this.out = out;
+        this.isInteractive = isInteractive;
+        this.listingRenderer = isInteractive 
+                ? new ListingRenderer(out, LISTING_PAGE_SIZE, this::askForNextPage)
+                : new ListingRenderer(out, ListingRenderer.NO_PAGING, () -> true);
+    }
+
     /**
-     * Fetches the instruction file,prints its content to the console,
-     * then waits for user input.
+     * Getter for the number of processed commands.
+     * @return long
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Prints the instructions, then processes commands, 
+     * until the exit command or the end of the input.
      */
     public void startUI() {
         getInstructions();
-        while (true) {
-            try {
-                processUserInput(getStringInputFromUser("Please select a command(0-10)"));
-            } catch (NotExpectedTimeOrderException | EmptyTimeFieldException | InvalidTaskIdException | NoTaskIdException | WeekendNotEnabledException | NotNewMonthException | NotNewDateException | NotTheSameMonthException | NegativeMinutesOfWorkException | NotSeparatedTimesException ex) {
-                System.out.println(ex.getMessage());
-            } 
+        try {
+            while (true) {
+                String command = getStringInputFromUser("Please select a command(0-10)");
+                if ("0".equals(command)) {
+                    break;
+                }
+                commandCount++;
+                try {
+                    processUserInput(command);
+                } catch (NotExpectedTimeOrderException | EmptyTimeFieldException | InvalidTaskIdException | NoTaskIdException | WeekendNotEnabledException | NotNewMonthException | NotNewDateException | NotTheSameMonthException | NegativeMinutesOfWorkException | NotSeparatedTimesException ex) {
+                    out.println(ex.getMessage());
+                } 
+            }
+        } catch (EndOfInputException e) {
+            // the input was closed, same as the exit command
+        } finally {
+            out.flush();
         }
     }
 
     /**
      * Prints out the list of instructions to the console
-     * from the instructions list.
+     * from the instructions list, in interactive mode.
      */
     private void getInstructions() {
-        instructions.forEach(System.out::println);
+        if (isInteractive) {
+            instructions.forEach(out::println);
+        }
     }
 
     private void processUserInput(String inputFromUser) throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NegativeMinutesOfWorkException, NotSeparatedTimesException, WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException, NotNewMonthException {
 
         switch (inputFromUser) {
-            case "0":
-                System.exit(0);
-                break;
             case "1":
                 listMonths();
                 break;
@@ -100,27 +155,32 @@ public class TimeLoggerUI {
                 break;
             default:
                 getInstructions();
-                System.out.println("Invalid input.\nExpected 0 to 10.");
+                out.println("Invalid input.\nExpected 0 to 10.");
                 break;
         }
     }
 
+    /**
+     * Lists the months before selecting one of them, in interactive mode.
+     */
+    private void promptMonths() {
+        if (isInteractive) {
+            listMonths();
+        }
+    }
+
     /**
      * Lists all the stored months.
      */
     private void listMonths() {
-        System.out.println("Months:");
+        out.println("Months:");
         try {
-            timeLogger.getMonths().stream()
-                    .forEach(month -> {
-                        System.out.println(
-                                timeLogger.getMonths().indexOf(month) + 1 + ". "
-                                + month.getDate()
-                                .format(DateTimeFormatter.ofPattern("yyyy-MM"))
-                        );
-                    });
+            listingRenderer.render(timeLogger.getMonths(), 
+                    month -> month.getDate().format(MONTH_FORMATTER));
+        } catch (EndOfInputException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
@@ -129,11 +189,11 @@ public class TimeLoggerUI {
      */
     private void listDays() {
         try {
-            listMonths();
+            promptMonths();
             int month = validateListSelection(getMonthsSize(), "The month");
             listDaysInMonth(month);
         } catch (IllegalStateException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
@@ -142,13 +202,15 @@ public class TimeLoggerUI {
      */
     private void listTasks() {
         try {
-            listMonths();
+            promptMonths();
             int month = validateListSelection(getMonthsSize(), "The month");
-            listDaysInMonth(month);
+            promptDays(month);
             int day = validateListSelection(getDaysSize(month), "The day");
             listTasksInDay(month, day);
+        } catch (EndOfInputException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
@@ -175,7 +237,7 @@ public class TimeLoggerUI {
      * @throws NotTheSameMonthException 
      */
     private void addDayToMonth() throws NegativeMinutesOfWorkException, WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException {
-        listMonths();
+        promptMonths();
         int month = validateListSelection(getMonthsSize(), "The month");
         int monthLength = getMonthByIndex(month).getDate().getMonth().maxLength();
         int day = getIntegerInputFromUser("New day");
@@ -188,7 +250,7 @@ public class TimeLoggerUI {
                 if (requiredWorkingHours.matches("\\d{1,2}\\.?\\d{0,2}")) {
                     double tmpDouble = Double.parseDouble(requiredWorkingHours);
                     if (tmpDouble > 24) {
-                        System.out.println("Enter valid hours(0-24)!");
+                        out.println("Enter valid hours(0-24)!");
                         continue;
                     }
                     requiredMinPerDay = (long) tmpDouble * 60;
@@ -198,7 +260,7 @@ public class TimeLoggerUI {
                     break;
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Unexpected format.");
+                out.println("Unexpected format.");
             }
         }
         getMonthByIndex(month).addWorkDay(new WorkDay((long) requiredMinPerDay,
@@ -216,9 +278,9 @@ public class TimeLoggerUI {
      * @throws NotSeparatedTimesException 
      */
     private void startTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException {
-        listMonths();
+        promptMonths();
         int month = validateListSelection(getMonthsSize(), "The month");
-        listDaysInMonth(month);
+        promptDays(month);
         int day = validateListSelection(getDaysSize(month), "The day");
 
         String taskId = getStringInputFromUser("The task id");
@@ -252,9 +314,9 @@ public class TimeLoggerUI {
      */
     private void finishTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException {
         try {           
-            listMonths();
+            promptMonths();
             int month = validateListSelection(getMonthsSize(), "The month");
-            listDaysInMonth(month);
+            promptDays(month);
             int day = validateListSelection(getDaysSize(month), "The day");
 
             List<Task> startedTasks = getDayWithGivenMonthAndDay(month, day)
@@ -262,22 +324,19 @@ public class TimeLoggerUI {
                     .filter(task -> task.getEndTime() == null)
                     .collect(Collectors.toList());
             if (startedTasks.isEmpty()) {
-                System.out.println("The given day has no task you can end.");
+                out.println("The given day has no task you can end.");
             } else {
-                startedTasks.forEach(task -> {
-                    System.out.println(startedTasks
-                            .indexOf(task) + 1 + ". " + task.toString());
-                });
+                if (isInteractive) {
+                    listingRenderer.render(startedTasks, Task::toString);
+                }
                 int taskNum = validateListSelection(startedTasks.size(), 
                         "Select a task from the list");
                 startedTasks.get(taskNum)
-                        .setEndTime(LocalTime
-                                .parse(validateTimeInput(
-                                        getStringInputFromUser("End time")),
-                                        DateTimeFormatter.ofPattern("H:m")));
+                        .setEndTime(TimeParser.parse(validateTimeInput(
+                                getStringInputFromUser("End time"))));
             }
         } catch (IllegalStateException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }  
     }
 
@@ -285,12 +344,12 @@ public class TimeLoggerUI {
      * Deletes the given task.
      */
     private void deleteTask() {
-        listMonths();
+        promptMonths();
         try {
             int month = validateListSelection(getMonthsSize(), "The month");
-            listDaysInMonth(month);
+            promptDays(month);
             int day = validateListSelection(getDaysSize(month), "The day");
-            listTasksInDay(month, day);
+            promptTasks(month, day);
             int taskNum = validateListSelection( 
                     getDayWithGivenMonthAndDay(month, day).getTasks().size(), 
                     "Select the task you want to delete");
@@ -302,12 +361,14 @@ public class TimeLoggerUI {
                     .equalsIgnoreCase("y")) {
                 getDayWithGivenMonthAndDay(month, day)
                         .deleteTask(task);
-                System.out.println("Task was deleted.");
+                out.println("Task was deleted.");
             } else {
-                System.out.println("Task was not deleted.");
+                out.println("Task was not deleted.");
             }
+        } catch (EndOfInputException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
@@ -319,17 +380,19 @@ public class TimeLoggerUI {
      * @throws EmptyTimeFieldException 
      */
     private void modifyTask() throws NotExpectedTimeOrderException, InvalidTaskIdException, NoTaskIdException, EmptyTimeFieldException {
-        listMonths();
+        promptMonths();
         int month = validateListSelection(getMonthsSize(), "The month");
-        listDaysInMonth(month);
+        promptDays(month);
         int day = validateListSelection(getDaysSize(month), "The day");
-        listTasksInDay(month, day);
+        promptTasks(month, day);
         Task task = getDayWithGivenMonthAndDay(month, day)
                 .getTasks().get(validateListSelection(
                         getDayWithGivenMonthAndDay(month, day).getTasks().size()
                         ,"Select the task you want to modify"));
 
-        System.out.println("To keep the [original value],let the input empty.");
+        if (isInteractive) {
+            out.println("To keep the [original value],let the input empty.");
+        }
         String taskId = getStringInputFromUser("New taskId"
                 + "[" + task.getTaskId() + "]");
         String comment = getStringInputFromUser("New comment"
@@ -351,29 +414,29 @@ public class TimeLoggerUI {
      */
     private void getStatistics() throws EmptyTimeFieldException{
         try {
-        listMonths();
+        promptMonths();
         int month = validateListSelection(getMonthsSize(),
                 "Select a month from the list above");
         WorkMonth workMonth = getMonthByIndex(month);
         
-            System.out.println("Date: " + workMonth.getDate());
-            System.out.println("Required Minutes Per Month:"
+            out.println("Date: " + workMonth.getDate());
+            out.println("Required Minutes Per Month:"
                     + workMonth.getRequiredMinPerMonth());
-            System.out.println("Extra Min Per Month: "
+            out.println("Extra Min Per Month: "
                     + workMonth.getExtraMinPerMonth());
-            System.out.println("Sum of month: "
+            out.println("Sum of month: "
                     + workMonth.getSumPerMonth());
 
             workMonth.getDays().stream().forEachOrdered(day -> {
-                System.out.println("\nDate of day: " + day.getActualDay());
-                System.out.println("Required Minutes Per Day: "
+                out.println("\nDate of day: " + day.getActualDay());
+                out.println("Required Minutes Per Day: "
                         + day.getRequiredMinPerday());
-                System.out.println("Extra minutes per day: "
+                out.println("Extra minutes per day: "
                         + day.getExtraMinPerDay());
-                System.out.println("Sum of day: " + day.getSumPerDay());
+                out.println("Sum of day: " + day.getSumPerDay());
             }); 
         } catch (IllegalStateException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
@@ -384,9 +447,19 @@ public class TimeLoggerUI {
      * @return String input
      */
     private String getStringInputFromUser(String message) {
-        Scanner scanner = new Scanner(System.in);
-        System.out.print(message + ": ");
-        return scanner.nextLine();
+        if (isInteractive) {
+            out.print(message + ": ");
+            out.flush();
+        }
+        try {
+            String line = in.readLine();
+            if (line == null) {
+                throw new EndOfInputException();
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -402,7 +475,7 @@ public class TimeLoggerUI {
                 number = Integer.parseInt(getStringInputFromUser(message));
                 break;
             } catch (NumberFormatException e) {
-                System.out.println("Only integer numbers are allowed.");
+                out.println("Only integer numbers are allowed.");
             }
         }
         return number;
@@ -431,7 +504,7 @@ public class TimeLoggerUI {
             try {
                 value = getIntegerInputFromUser(msg);
             } catch (NumberFormatException e) {
-                System.out.println("Only integer numbers are allowed.");
+                out.println("Only integer numbers are allowed.");
             }
         }
         return value;
@@ -451,7 +524,7 @@ public class TimeLoggerUI {
             try {
                 value = getIntegerInputFromUser(message) + listingToIndexOffset;
             } catch (NumberFormatException e) {
-                System.out.println("Only integer numbers are allowed.");
+                out.println("Only integer numbers are allowed.");
             }
         }
         return value;
@@ -467,8 +540,7 @@ public class TimeLoggerUI {
     private String validateTimeInput(String timeString) {
         while (true) {
             try {
-                LocalTime time = LocalTime
-                        .parse(timeString, DateTimeFormatter.ofPattern("H:m"));
+                TimeParser.parseMinuteOfDay(timeString);
                 break;
             } catch (DateTimeParseException e) {
                 timeString = getStringInputFromUser("Allowed "
@@ -488,15 +560,34 @@ public class TimeLoggerUI {
         return timeLogger.getMonths().get(month).getDays().get(day);
     }
 
+    /**
+     * Lists the days before selecting one of them, in interactive mode.
+     * @param month 
+     */
+    private void promptDays(int month) {
+        if (isInteractive) {
+            listDaysInMonth(month);
+        }
+    }
+
+    /**
+     * Lists the tasks before selecting one of them, in interactive mode.
+     * @param month
+     * @param day 
+     */
+    private void promptTasks(int month, int day) {
+        if (isInteractive) {
+            listTasksInDay(month, day);
+        }
+    }
+
     /**
      * Lists the days in given month.
      * @param month 
      */
     private void listDaysInMonth(int month) {
-        timeLogger.getMonths().get(month).getDays().forEach(day -> {
-            System.out.println(timeLogger.getMonths().get(month).getDays()
-                    .indexOf(day) + 1 + ". " + day.getActualDay());
-        });
+        listingRenderer.render(getMonthByIndex(month).getDays(), 
+                day -> day.getActualDay().toString());
     }
 
     /**
@@ -505,16 +596,23 @@ public class TimeLoggerUI {
      * @param day 
      */
     private void listTasksInDay(int month, int day) {
-        if (getDayWithGivenMonthAndDay(month, day).getTasks().isEmpty()) {
-            System.out.println("The given day has no tasks.");
+        List<Task> tasks = getDayWithGivenMonthAndDay(month, day).getTaskList();
+        if (tasks.isEmpty()) {
+            out.println("The given day has no tasks.");
         } else {
-            getDayWithGivenMonthAndDay(month, day).getTasks().forEach(task -> {
-                System.out.println(getDayWithGivenMonthAndDay(month, day)
-                        .getTasks().indexOf(task) + 1 + ". " + task.toString());
-            });
+            listingRenderer.render(tasks, Task::toString);
         }
     }
 
+    /**
+     * Asks, if the listing should go on with the next page.
+     * @return Boolean false, if the user wants to stop the listing
+     */
+    private boolean askForNextPage() {
+        return !getStringInputFromUser("-- Enter for more, q to stop --")
+                .equalsIgnoreCase("q");
+    }
+
     private int getMonthsSize() {
         return timeLogger.getMonths().size();
     }
@@ -535,4 +633,14 @@ public class TimeLoggerUI {
         }
         return validateTimeInput(input);
     }
-}
\ No newline at end of file
+
+    /**
+     * Thrown, when the input ends while a command is waiting for an answer.
+     */
+    private static class EndOfInputException extends RuntimeException {
+
+        EndOfInputException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package timelogger;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses times in the H:m format, the same way as 
+ * LocalTime.parse(text, DateTimeFormatter.ofPattern("H:m")) does,
+ * but without building a formatter or any intermediate object.
+ *
+ * @author Dubi
+ */
+public final class TimeParser {
+
+    private static final int MAX_DIGITS = 19;
+    private static final int OUT_OF_RANGE = Integer.MAX_VALUE;
+
+    private TimeParser() {
+    }
+
+    /**
+     * Returns the shared LocalTime instance of given H:m or HH:mm text.
+     * @param text
+     * @return LocalTime time
+     * @throws DateTimeParseException If text is not a valid time.
+     */
+    public static LocalTime parse(CharSequence text) {
+        return MinuteOfDay.toLocalTime(parseMinuteOfDay(text));
+    }
+
+    /**
+     * Returns the minute of day of given H:m or HH:mm text.
+     * As with the formatter, 24:00 is midnight.
+     * @param text
+     * @return int minute of day
+     * @throws DateTimeParseException If text is not a valid time.
+     */
+    public static int parseMinuteOfDay(CharSequence text) {
+        int length = text.length();
+        int separator = skipDigits(text, 0);
+        if (separator == 0 || separator > MAX_DIGITS) {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed at index 0", text, 0);
+        }
+        if (separator == length || text.charAt(separator) != ':') {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed at index " + separator, text, separator);
+        }
+        int end = skipDigits(text, separator + 1);
+        if (end == separator + 1 || end - separator - 1 > MAX_DIGITS) {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed at index " + (separator + 1), text, separator + 1);
+        }
+        if (end != length) {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed, unparsed text found at index " + end, text, end);
+        }
+
+        int hour = valueOf(text, 0, separator);
+        int minute = valueOf(text, separator + 1, end);
+        if (minute > 59) {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed: Invalid value for MinuteOfHour", text, 0);
+        }
+        if (hour == 24 && minute == 0) {
+            return 0;
+        } else if (hour > 23) {
+            throw new DateTimeParseException("Text '" + text 
+                    + "' could not be parsed: Invalid value for HourOfDay", text, 0);
+        }
+        return hour * 60 + minute;
+    }
+
+    private static int skipDigits(CharSequence text, int from) {
+        int index = from;
+        while (index < text.length() && isDigit(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns the value of the digits between from and to, 
+     * or OUT_OF_RANGE, if it is greater than any valid hour or minute.
+     */
+    private static int valueOf(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+            if (value > 59) {
+                return OUT_OF_RANGE;
+            }
+        }
+        return value;
+    }
+}
@@ -48,7 +48,9 @@ public class Util {
      * @return Boolean
      */
     public static boolean isSeparatedTime(Task task, List<Task> tasks) {
-        return tasks.stream()
+        SeparationCheckEvent event = new SeparationCheckEvent();
+        event.begin();
+        boolean separated = tasks.stream()
                 .noneMatch(taskElement
                         -> ((taskElement.getStartTime().isBefore(task.getEndTime()))
                 && (taskElement.getEndTime().isAfter(task.getStartTime())))
@@ -56,6 +58,13 @@ public class Util {
                         taskElement.getStartTime().equals(task.getEndTime()))
                 || (taskElement.getStartTime().equals(taskElement.getEndTime()) 
                         && task.getStartTime().equals(taskElement.getEndTime())));
+        event.end();
+        if (event.shouldCommit()) {
+            event.taskCount = tasks.size();
+            event.separated = separated;
+            event.commit();
+        }
+        return separated;
     }
 
     /**
@@ -68,6 +77,15 @@ public class Util {
                 && date.getDayOfWeek() != DayOfWeek.SUNDAY;
     }
 
+    /**
+     * Checks if the given duration is multiples of a quarter of hour.
+     * @param durationInMinutes
+     * @return Boolean
+     */
+    public static boolean isMultipleQuarterHour(long durationInMinutes) {
+        return durationInMinutes % QUARTER_OF_HOUR_IN_MIN == 0;
+    }
+
     /**
      * Checks if the time between startTime and endTime is 
      * multiples of a quarter of hour.
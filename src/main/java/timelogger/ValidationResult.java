@@ -0,0 +1,108 @@
+package timelogger;
+
+import timelogger.exceptions.EmptyTimeFieldException;
+import timelogger.exceptions.FutureWorkException;
+import timelogger.exceptions.InvalidTaskIdException;
+import timelogger.exceptions.NegativeMinutesOfWorkException;
+import timelogger.exceptions.NoTaskIdException;
+import timelogger.exceptions.NotExpectedTimeOrderException;
+import timelogger.exceptions.NotNewDateException;
+import timelogger.exceptions.NotNewMonthException;
+import timelogger.exceptions.NotSeparatedTimesException;
+import timelogger.exceptions.NotTheSameMonthException;
+import timelogger.exceptions.WeekendNotEnabledException;
+
+/**
+ * Outcome of the non-throwing validation methods. Every failure 
+ * corresponds to one exception of the throwing API.
+ *
+ * @author Dubi
+ */
+public enum ValidationResult {
+    OK(null),
+    EMPTY_TIME_FIELD("Cannot add task with empty time fields."),
+    NOT_EXPECTED_TIME_ORDER("End time is not after start time."),
+    NO_TASK_ID("Task has no id."),
+    INVALID_TASK_ID("Not a valid task id."),
+    NOT_SEPARATED_TIMES("There is an overlap between tasks start and end time."),
+    NEGATIVE_MINUTES_OF_WORK("The required time cannot be negative."),
+    FUTURE_WORK("Date cannot be in the future."),
+    WEEKEND_NOT_ENABLED("Adding days to weekends are disabled."),
+    NOT_NEW_DATE("This workday already exists."),
+    NOT_THE_SAME_MONTH("Not all the workdays are in the same month."),
+    NOT_NEW_MONTH("This month already exists."),
+    SEALED("The month is sealed.");
+
+    private final String message;
+
+    private ValidationResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the message, which the matching exception has.
+     * @return String message or null, if OK
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Checks if this is the OK result.
+     * @return Boolean
+     */
+    public boolean isValid() {
+        return this == OK;
+    }
+
+    /**
+     * Returns the matching exception without stack trace.
+     * SEALED matches the IllegalStateException of the changes of a sealed month.
+     * @return Exception or null, if OK
+     */
+    public Exception toException() {
+        switch (this) {
+            case EMPTY_TIME_FIELD:
+                return new EmptyTimeFieldException(message, false);
+            case NOT_EXPECTED_TIME_ORDER:
+                return new NotExpectedTimeOrderException(message, false);
+            case NO_TASK_ID:
+                return new NoTaskIdException(message, false);
+            case INVALID_TASK_ID:
+                return new InvalidTaskIdException(message, false);
+            case NOT_SEPARATED_TIMES:
+                return new NotSeparatedTimesException(message, false);
+            case NEGATIVE_MINUTES_OF_WORK:
+                return new NegativeMinutesOfWorkException(message, false);
+            case FUTURE_WORK:
+                return new FutureWorkException(message, false);
+            case WEEKEND_NOT_ENABLED:
+                return new WeekendNotEnabledException(message, false);
+            case NOT_NEW_DATE:
+                return new NotNewDateException(message, false);
+            case NOT_THE_SAME_MONTH:
+                return new NotTheSameMonthException(message, false);
+            case NOT_NEW_MONTH:
+                return new NotNewMonthException(message, false);
+            case SEALED:
+                return new SealedMonthException(message);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * IllegalStateException of SEALED, which does not capture the stack trace.
+     */
+    private static final class SealedMonthException extends IllegalStateException {
+
+        SealedMonthException(String message) {
+            super(message, null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
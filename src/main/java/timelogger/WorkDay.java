@@ -3,11 +3,17 @@ package timelogger;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.Map;
 import lombok.Getter;
+import timelogger.TimeLoggerMetrics.Operation;
 import timelogger.exceptions.EmptyTimeFieldException;
 import timelogger.exceptions.FutureWorkException;
+import timelogger.exceptions.InvalidTaskBatchException;
 import timelogger.exceptions.NegativeMinutesOfWorkException;
 import timelogger.exceptions.NotExpectedTimeOrderException;
 import timelogger.exceptions.NotSeparatedTimesException;
@@ -18,9 +24,12 @@ import timelogger.exceptions.NotSeparatedTimesException;
  */
 public class WorkDay {
     private final List<Task> tasks = new ArrayList<>();
-    @Getter private long requiredMinPerday;
+    private OccupancyIndex occupancy = new OccupancyIndex();
+    private boolean tasksInStartOrder = true;
+    @Getter private volatile long requiredMinPerday;
     @Getter private LocalDate actualDay;
-    private long sumPerDay;
+    private volatile long sumPerDay;
+    private WorkMonth workMonth;
 
     public WorkDay() {
         this.requiredMinPerday = 450;
@@ -42,23 +51,44 @@ public class WorkDay {
         this.actualDay = LocalDate.of(year, month, day);
     }
 
+    /**
+     * Creates a day from already validated values, e.g. from a snapshot.
+     * @param actualDay
+     * @param requiredMinPerday 
+     */
+    WorkDay(LocalDate actualDay, long requiredMinPerday) {
+        this.requiredMinPerday = requiredMinPerday;
+        this.actualDay = actualDay;
+    }
+
     /**
      * Setter for requiredMinPerDay.
      * @param requiredMinPerday
      * @throws NegativeMinutesOfWorkException
      */
     public void setRequiredMinPerday(long requiredMinPerday) throws NegativeMinutesOfWorkException {
+        checkNotSealed();
+        long oldRequiredMinPerday = this.requiredMinPerday;
         this.requiredMinPerday = validatedRequiredMinPerDay(requiredMinPerday);
+        if (workMonth != null) {
+            workMonth.updateTotals(0, this.requiredMinPerday - oldRequiredMinPerday);
+        }
+        notifyListeners(listener -> listener.workDayChanged(this, oldRequiredMinPerday));
     }
 
     /**
-     * Setter for actualDay.
+     * Setter for actualDay. The date of a day, which is already in a month,
+     * cannot be changed, as the month keeps its days by their date.
      * @param year
      * @param month
      * @param day
      * @throws FutureWorkException
+     * @throws IllegalStateException If the day is already in a month.
      */
     public void setActualDay(int year, int month, int day) throws FutureWorkException {
+        if (workMonth != null) {
+            throw new IllegalStateException("The date of a day in a month cannot be changed.");
+        }
         this.actualDay = validatedActualDay(LocalDate.of(year, month, day));
     }
     
@@ -74,18 +104,45 @@ public class WorkDay {
         return tasks;
     }
 
+    /**
+     * Returns with the list of tasks, without failing on an empty day.
+     * @return List of tasks
+     */
+    List<Task> getTaskList() {
+        return tasks;
+    }
+
+    /**
+     * Returns with the tasks ordered by their startTime. While the tasks
+     * were added in that order, which is the usual case, this is the list
+     * of tasks itself, otherwise a sorted copy of it.
+     * @return List of tasks
+     */
+    List<Task> getTasksInStartOrder() {
+        if (tasksInStartOrder) {
+            return tasks;
+        }
+        List<Task> sortedTasks = new ArrayList<>(tasks);
+        sortedTasks.sort(Comparator.comparingInt(Task::getStartMinute));
+        return sortedTasks;
+    }
+
+    private static boolean isInStartOrder(List<Task> tasks) {
+        for (int i = 1; i < tasks.size(); i++) {
+            if (tasks.get(i - 1).getStartMinute() > tasks.get(i).getStartMinute()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns with the sum of minutes of finished tasks.
+     * The sum is kept up to date on every change of the tasks.
      * @return long
      */
     public long getSumPerDay() {
-        return tasks.stream()
-                .collect(Collectors.summingLong(task -> {
-                    try {
-                        return task.getMinPerTask();
-                    } catch (EmptyTimeFieldException ex) {}
-                    return 0;
-        }));
+        return sumPerDay;
     }
     
     /**
@@ -93,7 +150,6 @@ public class WorkDay {
      * @return int sumPerDay - requiredMinPerday
      */
     public long getExtraMinPerDay(){
-        sumPerDay = getSumPerDay();
         return sumPerDay - requiredMinPerday;
     }
     
@@ -106,15 +162,163 @@ public class WorkDay {
      * @throws NotExpectedTimeOrderException 
      */
     public void addTask(Task task) throws NotSeparatedTimesException, EmptyTimeFieldException, NotExpectedTimeOrderException{
-        
+        WorkDayEvent event = new WorkDayEvent();
+        if (!TimeLoggerMetrics.ENABLED && !event.isEnabled()) {
+            checkAndPutTask(task);
+            return;
+        }
+        long startNanos = TimeLoggerMetrics.start();
+        event.begin();
+        int oldTaskCount = tasks.size();
+        String outcome = ValidationResult.OK.name();
+        try {
+            checkAndPutTask(task);
+        } catch (Exception e) {
+            TimeLoggerMetrics.recordFailure(Operation.ADD_TASK, e);
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            TimeLoggerMetrics.record(Operation.ADD_TASK, startNanos);
+            event.commit("addTask", this, oldTaskCount, outcome);
+        }
+    }
+
+    /**
+     * Same as addTask, without recording metrics.
+     */
+    private void checkAndPutTask(Task task) throws NotSeparatedTimesException, EmptyTimeFieldException, NotExpectedTimeOrderException {
+        checkNotSealed();
         if(task.getStartTime() == null || task.getEndTime() == null){
             throw new EmptyTimeFieldException("Cannot add task with empty time fields.");
-        }else if(!Util.isSeparatedTime(task, tasks)){
+        }else if(!occupancy.isSeparated(task)){
             throw new NotSeparatedTimesException("There is an overlap between tasks start and end time.");
-        }else if (Util.isMultipleQuarterHour(task.getStartTime(), task.getEndTime()) && 
-                Util.isSeparatedTime(task, tasks)) {
-            tasks.add(task);
+        }else if (Util.isMultipleQuarterHour(task.getStartTime(), task.getEndTime())) {
+            putTask(task);
+        }
+    }
+
+    /**
+     * Checks if the given task could be added to the list of tasks.
+     * Same checks as in addTask, but without throwing any exception.
+     * @param task
+     * @return ValidationResult
+     */
+    public ValidationResult validateTask(Task task) {
+        long startNanos = TimeLoggerMetrics.start();
+        ValidationResult result = validateTask(task, occupancy);
+        TimeLoggerMetrics.recordFailure(Operation.VALIDATE_TASK, result);
+        TimeLoggerMetrics.record(Operation.VALIDATE_TASK, startNanos);
+        return result;
+    }
+
+    /**
+     * Adds a task to the list of tasks, if it is valid.
+     * Same as addTask, but returns the result instead of throwing an exception,
+     * SEALED if the month of this day is sealed.
+     * Like in addTask, tasks with a duration, which is not multiples 
+     * of a quarter hour, are not added.
+     * @param task
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddTask(Task task) {
+        WorkDayEvent event = new WorkDayEvent();
+        if (!TimeLoggerMetrics.ENABLED && !event.isEnabled()) {
+            return checkAndTryPutTask(task);
+        }
+        long startNanos = TimeLoggerMetrics.start();
+        event.begin();
+        int oldTaskCount = tasks.size();
+        ValidationResult result = checkAndTryPutTask(task);
+        TimeLoggerMetrics.recordFailure(Operation.ADD_TASK, result);
+        TimeLoggerMetrics.record(Operation.ADD_TASK, startNanos);
+        event.commit("tryAddTask", this, oldTaskCount, result.name());
+        return result;
+    }
+
+    /**
+     * Same as tryAddTask, without recording metrics.
+     */
+    private ValidationResult checkAndTryPutTask(Task task) {
+        if (isSealed()) {
+            return ValidationResult.SEALED;
         }
+        ValidationResult result = validateTask(task, occupancy);
+        if (result.isValid() && Util.isMultipleQuarterHour(task.getFinishedMinutes())) {
+            putTask(task);
+        }
+        return result;
+    }
+    
+    /**
+     * Adds all the given tasks to the list of tasks, or none of them.
+     * The batch is sorted by startTime, then every task is checked against
+     * the existing tasks and the already accepted tasks of the batch.
+     * @param batch
+     * @throws InvalidTaskBatchException If any task is invalid, with every invalid task.
+     */
+    public void addTasks(Collection<Task> batch) throws InvalidTaskBatchException {
+        checkNotSealed();
+        WorkDayEvent event = new WorkDayEvent();
+        event.begin();
+        int oldTaskCount = tasks.size();
+        List<Task> sortedBatch = new ArrayList<>(batch);
+        sortedBatch.sort(Comparator.comparing(Task::getStartTime, 
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        
+        OccupancyIndex batchOccupancy = occupancy.copy();
+        List<Task> acceptedTasks = new ArrayList<>(sortedBatch.size());
+        Map<Task, Exception> rejectedTasks = new LinkedHashMap<>();
+        for (Task task : sortedBatch) {
+            ValidationResult result = validateTask(task, batchOccupancy);
+            if (!result.isValid()) {
+                rejectedTasks.put(task, result.toException());
+            } else if (Util.isMultipleQuarterHour(task.getFinishedMinutes())) {
+                batchOccupancy.add(task);
+                acceptedTasks.add(task);
+            }
+        }
+        if (!rejectedTasks.isEmpty()) {
+            event.commit("addTasks", this, oldTaskCount, InvalidTaskBatchException.class.getSimpleName());
+            throw new InvalidTaskBatchException(rejectedTasks.size() 
+                    + " of " + sortedBatch.size() + " tasks are invalid.", rejectedTasks);
+        }
+        
+        for (Task task : acceptedTasks) {
+            putTask(task);
+        }
+        event.commit("addTasks", this, oldTaskCount, ValidationResult.OK.name());
+    }
+    
+    /**
+     * Checks the given task against the given occupancy index.
+     * @param task
+     * @param index
+     * @return ValidationResult
+     */
+    private ValidationResult validateTask(Task task, OccupancyIndex index) {
+        if (task.getStartMinute() == MinuteOfDay.NONE || task.getEndMinute() == MinuteOfDay.NONE) {
+            return ValidationResult.EMPTY_TIME_FIELD;
+        } else if (!index.isSeparated(task)) {
+            return ValidationResult.NOT_SEPARATED_TIMES;
+        } else if (task.getEndMinute() < task.getStartMinute()) {
+            return ValidationResult.NOT_EXPECTED_TIME_ORDER;
+        }
+        return ValidationResult.OK;
+    }
+
+    /**
+     * Adds the already validated task to the list of tasks.
+     * @param task 
+     */
+    void putTask(Task task) {
+        checkNotSealed();
+        tasksInStartOrder &= tasks.isEmpty() 
+                || tasks.get(tasks.size() - 1).getStartMinute() <= task.getStartMinute();
+        tasks.add(task);
+        task.setWorkDay(this);
+        occupancy.add(task);
+        addToSum(task.getFinishedMinutes());
+        notifyListeners(listener -> listener.taskAdded(this, task));
     }
     
     /**
@@ -134,7 +338,16 @@ public class WorkDay {
      * @return List of tasks
      */
     public List<Task> deleteTask(Task task){
-        tasks.remove(task);
+        checkNotSealed();
+        int index = tasks.indexOf(task);
+        if (index >= 0) {
+            tasks.remove(index);
+            task.setWorkDay(null);
+            occupancy.rebuild(tasks);
+            tasksInStartOrder = tasksInStartOrder || isInStartOrder(tasks);
+            addToSum(-task.getFinishedMinutes());
+            notifyListeners(listener -> listener.taskRemoved(this, task, index));
+        }
         return tasks;
     }
     
@@ -160,6 +373,77 @@ public class WorkDay {
         }
     }
 
+    /**
+     * Called by a task of this day, after it was changed.
+     * @param task
+     * @param oldTaskId the id of the task before the change
+     * @param oldMinutes the finished minutes of the task before the change
+     * @param timesChanged true, if the start or the end minute of the task was changed
+     */
+    void taskChanged(Task task, String oldTaskId, long oldMinutes, boolean timesChanged) {
+        if (timesChanged) {
+            occupancy.rebuild(tasks);
+            tasksInStartOrder = isInStartOrder(tasks);
+        }
+        addToSum(task.getFinishedMinutes() - oldMinutes);
+        notifyListeners(listener -> listener.taskChanged(this, task, oldTaskId, oldMinutes));
+    }
+
+    /**
+     * Returns with the WorkMonth, which holds this day.
+     * @return WorkMonth or null
+     */
+    WorkMonth getWorkMonth() {
+        return workMonth;
+    }
+
+    /**
+     * Sets the WorkMonth, which holds this day.
+     * @param workMonth 
+     */
+    void setWorkMonth(WorkMonth workMonth) {
+        this.workMonth = workMonth;
+    }
+
+    /**
+     * Checks if the month of this day is sealed.
+     * @return Boolean
+     */
+    boolean isSealed() {
+        return workMonth != null && workMonth.isSealed();
+    }
+
+    /**
+     * Checks that the month of this day is not sealed.
+     * @throws IllegalStateException If the month of this day is sealed.
+     */
+    private void checkNotSealed() {
+        if (isSealed()) {
+            throw new IllegalStateException("The day is in a sealed month.");
+        }
+    }
+
+    /**
+     * Adds the given amount of minutes to sumPerDay and to the sum of the month.
+     * @param minutes 
+     */
+    private void addToSum(long minutes) {
+        sumPerDay += minutes;
+        if (workMonth != null) {
+            workMonth.updateTotals(minutes, 0);
+        }
+    }
+
+    /**
+     * Passes the given event to the listeners of the TimeLogger, which holds this day.
+     * @param event 
+     */
+    private void notifyListeners(Consumer<TimeLoggerListener> event) {
+        if (workMonth != null) {
+            workMonth.notifyListeners(event);
+        }
+    }
+
     private Task getTask(Task task){
         return tasks.get(tasks.indexOf(task));
     }
@@ -169,6 +453,16 @@ public class WorkDay {
         return "WorkDay{" + "tasks=" + tasks + ", requiredMinPerday=" + requiredMinPerday + ", actualDay=" + actualDay + ", sumPerDay=" + sumPerDay + '}';
     }
 
+    /**
+     * Checks if given requiredMinPerDay is valid, without throwing any exception.
+     * @param requiredMinPerday
+     * @return ValidationResult
+     */
+    public static ValidationResult validateRequiredMinPerDay(long requiredMinPerday) {
+        return requiredMinPerday < 0 
+                ? ValidationResult.NEGATIVE_MINUTES_OF_WORK : ValidationResult.OK;
+    }
+
     /**
      * Returns with requiredMinPerDay, if it is valid.
      * @param requiredMinPerday
@@ -203,8 +497,9 @@ public class WorkDay {
      * @throws EmptyTimeFieldException 
      */
     public void startTask(Task task, String startTime) throws NotExpectedTimeOrderException, EmptyTimeFieldException{
+        checkNotSealed();
         task.setStartTime(startTime);
-        tasks.add(task);
+        putTask(task);
     }
     
 }
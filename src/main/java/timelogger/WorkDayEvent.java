@@ -0,0 +1,65 @@
+package timelogger;
+
+import java.time.YearMonth;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of adding tasks to a WorkDay.
+ *
+ * A disabled event costs a check of isEnabled on an instance, which
+ * the JIT compiler removes by escape analysis, when no recording runs.
+ *
+ * @author Dubi
+ */
+@Name("timelogger.WorkDay")
+@Label("Work Day Operation")
+@Category("TimeLogger")
+@Description("Adding tasks to a day of a TimeLogger")
+final class WorkDayEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Month")
+    @Description("Month of the day, yyyy-MM")
+    String month;
+
+    @Label("Day")
+    @Description("Day of month")
+    int day;
+
+    @Label("Added Tasks")
+    int addedTasks;
+
+    @Label("Tasks")
+    @Description("Number of tasks of the day after the operation")
+    int taskCount;
+
+    @Label("Outcome")
+    @Description("OK, the failed validation or the simple name of the exception")
+    String outcome;
+
+    /**
+     * Commits the event with the given values, if it is recorded.
+     * @param operation
+     * @param workDay
+     * @param oldTaskCount the number of tasks of the day before the operation
+     * @param outcome
+     */
+    void commit(String operation, WorkDay workDay, int oldTaskCount, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.month = YearMonth.from(workDay.getActualDay()).toString();
+            this.day = workDay.getActualDay().getDayOfMonth();
+            this.taskCount = workDay.getTaskList().size();
+            this.addedTasks = taskCount - oldTaskCount;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
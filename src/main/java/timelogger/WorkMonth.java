@@ -1,24 +1,43 @@
 package timelogger;
 
 import java.time.YearMonth;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import lombok.Getter;
+import timelogger.TimeLoggerMetrics.Operation;
+import timelogger.exceptions.InvalidWorkDayBatchException;
 import timelogger.exceptions.NotNewDateException;
 import timelogger.exceptions.NotTheSameMonthException;
 import timelogger.exceptions.WeekendNotEnabledException;
 
 /**
+ * A finished month can be sealed, then its days and tasks are kept
+ * in the packed form of SealedMonth, and they cannot be changed anymore.
  * 
  * @author Dubi
  */
 public class WorkMonth{
 
-    private final List<WorkDay> days = new ArrayList<>();
+    static final int MAX_DAYS_PER_MONTH = 31;
+
+    private final AtomicReferenceArray<WorkDay> daySlots = new AtomicReferenceArray<>(MAX_DAYS_PER_MONTH);
+    private final List<WorkDay> days = new DaysView();
+    private volatile int numberOfDays;
     @Getter private YearMonth date;
-    private long sumPerMonth;
-    @Getter private long requiredMinPerMonth;
+    private final AtomicLong sumPerMonth = new AtomicLong();
+    private final AtomicLong requiredMinPerMonth = new AtomicLong();
+    private TimeLogger timeLogger;
+    private volatile SealedMonth sealedMonth;
 
     public WorkMonth() {
     }
@@ -29,6 +48,7 @@ public class WorkMonth{
 
     /**
      * Getter for the list of days.
+     * The returned list is a read-only view of the days in date order.
      * @throws IllegalStateException If given month has no days in it.
      * @return List of WorkDays
      */
@@ -39,15 +59,133 @@ public class WorkMonth{
         return days;
     }
 
+    /**
+     * Returns with the number of days, without failing on an empty month.
+     * @return int
+     */
+    int getNumberOfDays() {
+        return numberOfDays;
+    }
+
+    /**
+     * Returns with the day on the given day of month.
+     * @param dayOfMonth 1-31
+     * @return WorkDay or null, if there is no such day
+     */
+    public WorkDay getDay(int dayOfMonth) {
+        SealedMonth sealed = sealedMonth;
+        if (sealed != null) {
+            return sealed.getDay(dayOfMonth, this);
+        }
+        return daySlots.get(dayOfMonth - 1);
+    }
+
+    /**
+     * Checks if there is a day on the given day of month.
+     * @param dayOfMonth 1-31
+     * @return Boolean
+     */
+    public boolean containsDay(int dayOfMonth) {
+        SealedMonth sealed = sealedMonth;
+        if (sealed != null) {
+            return sealed.containsDay(dayOfMonth);
+        }
+        return daySlots.get(dayOfMonth - 1) != null;
+    }
+
+    /**
+     * Returns with the sum of the finished tasks of the day on the given
+     * day of month, without creating the day of a sealed month.
+     * @param dayOfMonth 1-31
+     * @return long or 0, if there is no such day
+     */
+    public long getSumPerDay(int dayOfMonth) {
+        SealedMonth sealed = sealedMonth;
+        if (sealed != null) {
+            return sealed.getSumPerDay(dayOfMonth);
+        }
+        WorkDay day = daySlots.get(dayOfMonth - 1);
+        return day == null ? 0 : day.getSumPerDay();
+    }
+
+    /**
+     * Returns with the overtime of the day on the given day of month,
+     * without creating the day of a sealed month.
+     * @param dayOfMonth 1-31
+     * @return long or 0, if there is no such day
+     */
+    public long getExtraMinPerDay(int dayOfMonth) {
+        SealedMonth sealed = sealedMonth;
+        if (sealed != null) {
+            return sealed.getExtraMinPerDay(dayOfMonth);
+        }
+        WorkDay day = daySlots.get(dayOfMonth - 1);
+        return day == null ? 0 : day.getExtraMinPerDay();
+    }
+
+    /**
+     * Seals this month: its days and tasks are packed into a read-only form,
+     * and the days and tasks are created from it on their first lookup. From then
+     * on adding a day, or changing a day or a task of this month throws 
+     * IllegalStateException, also through the days got before sealing.
+     * Sealing a sealed month does nothing. The sealed state is saved in
+     * snapshots, segments and journals, so the month is sealed on loading.
+     */
+    public void seal() {
+        synchronized (this) {
+            if (sealedMonth != null) {
+                return;
+            }
+            sealedMonth = new SealedMonth(this);
+            for (int slot = 0; slot < MAX_DAYS_PER_MONTH; slot++) {
+                daySlots.set(slot, null);
+            }
+        }
+        notifyListeners(listener -> listener.monthSealed(this));
+    }
+
+    /**
+     * Checks if this month is sealed.
+     * @return Boolean
+     */
+    public boolean isSealed() {
+        return sealedMonth != null;
+    }
+
+    /**
+     * Checks that this month is not sealed.
+     * @throws IllegalStateException If this month is sealed.
+     */
+    private void checkNotSealed() {
+        if (sealedMonth != null) {
+            throw new IllegalStateException("The month " + date + " is sealed.");
+        }
+    }
+
     /**
      * Returns with the sum of working hours in a month.
+     * The sum is kept up to date on every change of the days.
      * @return sumPerMonth
      */
     public long getSumPerMonth() {
-        sumPerMonth = days.stream()
-                //.filter(day -> !day.getTasks().isEmpty())
-                .collect(Collectors.summingLong(day -> day.getSumPerDay()));
-        return sumPerMonth;
+        WorkMonthEvent event = new WorkMonthEvent();
+        if (!TimeLoggerMetrics.ENABLED && !event.isEnabled()) {
+            return sumPerMonth.get();
+        }
+        long startNanos = TimeLoggerMetrics.start();
+        event.begin();
+        long sum = sumPerMonth.get();
+        TimeLoggerMetrics.record(Operation.GET_SUM_PER_MONTH, startNanos);
+        event.commit("getSumPerMonth", this, 0, ValidationResult.OK.name());
+        return sum;
+    }
+
+    /**
+     * Getter for requiredMinPerMonth.
+     * @return long
+     */
+    public long getRequiredMinPerMonth() {
+        return requiredMinPerMonth.get();
     }
 
     /**
@@ -55,18 +193,50 @@ public class WorkMonth{
      * @return getSumPerMonth() - requiredMinPerMonth
      */
     public long getExtraMinPerMonth() {
-        return getSumPerMonth() - requiredMinPerMonth;
+        return getSumPerMonth() - getRequiredMinPerMonth();
+    }
+
+    /**
+     * Called by a day of this month, after its sum or required minutes were changed.
+     * The totals are atomic, as different days may be changed by different threads.
+     * @param sumDelta
+     * @param requiredMinDelta 
+     */
+    void updateTotals(long sumDelta, long requiredMinDelta) {
+        if (sumDelta != 0) {
+            sumPerMonth.addAndGet(sumDelta);
+        }
+        if (requiredMinDelta != 0) {
+            requiredMinPerMonth.addAndGet(requiredMinDelta);
+        }
     }
 
     /**
-     * Checks if given workDay already exists in the list of workDays.
+     * Sets the TimeLogger, which holds this month.
+     * @param timeLogger 
+     */
+    void setTimeLogger(TimeLogger timeLogger) {
+        this.timeLogger = timeLogger;
+    }
+
+    /**
+     * Passes the given event to the listeners of the TimeLogger, which holds this month.
+     * @param event 
+     */
+    void notifyListeners(Consumer<TimeLoggerListener> event) {
+        if (timeLogger != null) {
+            timeLogger.notifyListeners(event);
+        }
+    }
+
+    /**
+     * Checks if there is no day yet with the date of the given workDay.
      * @param workDay
      * @return Boolean
      */
     public boolean isNewDate(WorkDay workDay) {
-        return days.stream().noneMatch(day
-                -> day.getActualDay()
-                        .equals(workDay.getActualDay()));
+        WorkDay day = getDay(workDay.getActualDay().getDayOfMonth());
+        return day == null || !day.getActualDay().equals(workDay.getActualDay());
     }
 
     /**
@@ -75,7 +245,73 @@ public class WorkMonth{
      * @return Boolean
      */
     public boolean isSameMonth(WorkDay workDay) {
-        return workDay.getActualDay().getMonth().equals(date.getMonth());
+        return YearMonth.from(workDay.getActualDay()).equals(date);
+    }
+
+    /**
+     * Checks if the given workDay could be added to the list of days.
+     * Same checks as in addWorkDay, but without throwing any exception.
+     * @param workDay
+     * @param isWeekendEnabled
+     * @return ValidationResult
+     */
+    public ValidationResult validateWorkDay(WorkDay workDay, boolean isWeekendEnabled) {
+        long startNanos = TimeLoggerMetrics.start();
+        ValidationResult result = checkWorkDay(workDay, isWeekendEnabled);
+        TimeLoggerMetrics.recordFailure(Operation.VALIDATE_WORK_DAY, result);
+        TimeLoggerMetrics.record(Operation.VALIDATE_WORK_DAY, startNanos);
+        return result;
+    }
+
+    /**
+     * Same as validateWorkDay, without recording metrics.
+     */
+    private ValidationResult checkWorkDay(WorkDay workDay, boolean isWeekendEnabled) {
+        if (isWeekendEnabled == false && 
+                Util.isWeekday(workDay.getActualDay()) == false) {
+            return ValidationResult.WEEKEND_NOT_ENABLED;
+        } else if (isNewDate(workDay) == false) {
+            return ValidationResult.NOT_NEW_DATE;
+        } else if (isSameMonth(workDay) == false) {
+            return ValidationResult.NOT_THE_SAME_MONTH;
+        }
+        return ValidationResult.OK;
+    }
+
+    /**
+     * Adds the given workDay to the list of days, if it is valid.
+     * Same as addWorkDay, but returns the result instead of throwing an exception,
+     * SEALED if this month is sealed.
+     * @param workDay
+     * @param isWeekendEnabled
+     * @return ValidationResult
+     */
+    public ValidationResult tryAddWorkDay(WorkDay workDay, boolean isWeekendEnabled) {
+        WorkMonthEvent event = new WorkMonthEvent();
+        if (!TimeLoggerMetrics.ENABLED && !event.isEnabled()) {
+            return checkAndTryPutWorkDay(workDay, isWeekendEnabled);
+        }
+        long startNanos = TimeLoggerMetrics.start();
+        event.begin();
+        ValidationResult result = checkAndTryPutWorkDay(workDay, isWeekendEnabled);
+        TimeLoggerMetrics.recordFailure(Operation.ADD_WORK_DAY, result);
+        TimeLoggerMetrics.record(Operation.ADD_WORK_DAY, startNanos);
+        event.commit("tryAddWorkDay", this, workDay.getActualDay().getDayOfMonth(), result.name());
+        return result;
+    }
+
+    /**
+     * Same as tryAddWorkDay, without recording metrics.
+     */
+    private ValidationResult checkAndTryPutWorkDay(WorkDay workDay, boolean isWeekendEnabled) {
+        if (isSealed()) {
+            return ValidationResult.SEALED;
+        }
+        ValidationResult result = checkWorkDay(workDay, isWeekendEnabled);
+        if (result.isValid()) {
+            putWorkDay(workDay);
+        }
+        return result;
     }
 
     /**
@@ -88,7 +324,31 @@ public class WorkMonth{
      * @throws NotTheSameMonthException 
      */
     public void addWorkDay(WorkDay workDay, boolean isWeekendEnabled) throws WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException {
+        WorkMonthEvent event = new WorkMonthEvent();
+        if (!TimeLoggerMetrics.ENABLED && !event.isEnabled()) {
+            checkAndPutWorkDay(workDay, isWeekendEnabled);
+            return;
+        }
+        long startNanos = TimeLoggerMetrics.start();
+        event.begin();
+        String outcome = ValidationResult.OK.name();
+        try {
+            checkAndPutWorkDay(workDay, isWeekendEnabled);
+        } catch (Exception e) {
+            TimeLoggerMetrics.recordFailure(Operation.ADD_WORK_DAY, e);
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            TimeLoggerMetrics.record(Operation.ADD_WORK_DAY, startNanos);
+            event.commit("addWorkDay", this, workDay.getActualDay().getDayOfMonth(), outcome);
+        }
+    }
 
+    /**
+     * Same as addWorkDay, without recording metrics.
+     */
+    private void checkAndPutWorkDay(WorkDay workDay, boolean isWeekendEnabled) throws WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException {
+        checkNotSealed();
         if (isWeekendEnabled == false && 
                 Util.isWeekday(workDay.getActualDay()) == false) {
             throw new WeekendNotEnabledException("Adding days to weekends are disabled.");
@@ -99,11 +359,8 @@ public class WorkMonth{
         } else if (isSameMonth(workDay) == false) {
             throw new NotTheSameMonthException("Not all the workdays are in the same month.");
         }
-        else
-        if ((isWeekendEnabled || Util.isWeekday(workDay.getActualDay())) && 
-                isNewDate(workDay) && isSameMonth(workDay)) {
-            requiredMinPerMonth += workDay.getRequiredMinPerday();
-            days.add(workDay);
+        else {
+            putWorkDay(workDay);
         }   
     }
 
@@ -118,4 +375,105 @@ public class WorkMonth{
         boolean isWeekendEnabled = false;
         addWorkDay(workday, isWeekendEnabled);
     }
+
+    /**
+     * Adds all the given workDays to the list of days, or none of them.
+     * The batch is sorted by date, then every day is checked against
+     * the existing days and the already accepted days of the batch.
+     * @param batch
+     * @param isWeekendEnabled
+     * @throws InvalidWorkDayBatchException If any day is invalid, with every invalid day.
+     */
+    public void addWorkDays(Collection<WorkDay> batch, boolean isWeekendEnabled) throws InvalidWorkDayBatchException {
+        checkNotSealed();
+        List<WorkDay> sortedBatch = new ArrayList<>(batch);
+        sortedBatch.sort(Comparator.comparing(WorkDay::getActualDay));
+        
+        boolean[] takenSlots = new boolean[MAX_DAYS_PER_MONTH];
+        Map<WorkDay, Exception> rejectedDays = new LinkedHashMap<>();
+        for (WorkDay workDay : sortedBatch) {
+            int slot = workDay.getActualDay().getDayOfMonth() - 1;
+            ValidationResult result = validateWorkDay(workDay, isWeekendEnabled);
+            if (result.isValid() && takenSlots[slot]) {
+                result = ValidationResult.NOT_NEW_DATE;
+            }
+            if (result.isValid()) {
+                takenSlots[slot] = true;
+            } else {
+                rejectedDays.put(workDay, result.toException());
+            }
+        }
+        if (!rejectedDays.isEmpty()) {
+            throw new InvalidWorkDayBatchException(rejectedDays.size() 
+                    + " of " + sortedBatch.size() + " days are invalid.", rejectedDays);
+        }
+        
+        sortedBatch.forEach(this::putWorkDay);
+    }
+
+    /**
+     * Puts the already validated workDay into its slot.
+     * @param workDay 
+     */
+    void putWorkDay(WorkDay workDay) {
+        checkNotSealed();
+        workDay.setWorkMonth(this);
+        updateTotals(workDay.getSumPerDay(), workDay.getRequiredMinPerday());
+        daySlots.set(workDay.getActualDay().getDayOfMonth() - 1, workDay);
+        numberOfDays++;
+        notifyListeners(listener -> listener.workDayAdded(this, workDay));
+    }
+
+    /**
+     * Read-only list of the filled day slots in date order.
+     */
+    private class DaysView extends AbstractList<WorkDay> {
+
+        @Override
+        public WorkDay get(int index) {
+            if (index < 0 || index >= numberOfDays) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfDays);
+            }
+            int slot = -1;
+            for (int i = 0; i <= index; i++) {
+                slot = nextFilledSlot(slot + 1);
+            }
+            return getDay(slot + 1);
+        }
+
+        @Override
+        public int size() {
+            return numberOfDays;
+        }
+
+        @Override
+        public Iterator<WorkDay> iterator() {
+            return new Iterator<WorkDay>() {
+                private int slot = nextFilledSlot(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < MAX_DAYS_PER_MONTH;
+                }
+
+                @Override
+                public WorkDay next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    WorkDay day = getDay(slot + 1);
+                    slot = nextFilledSlot(slot + 1);
+                    return day;
+                }
+            };
+        }
+
+        private int nextFilledSlot(int from) {
+            int slot = from;
+            while (slot < MAX_DAYS_PER_MONTH && !containsDay(slot + 1)) {
+                slot++;
+            }
+            return slot;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package timelogger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of adding days to a WorkMonth and of reading its sum.
+ *
+ * @author Dubi
+ */
+@Name("timelogger.WorkMonth")
+@Label("Work Month Operation")
+@Category("TimeLogger")
+@Description("Adding days to a month of a TimeLogger, or reading its sum")
+final class WorkMonthEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Month")
+    @Description("yyyy-MM")
+    String month;
+
+    @Label("Day")
+    @Description("Day of month of the added day, 0 for the operations of the whole month")
+    int day;
+
+    @Label("Days")
+    @Description("Number of days of the month after the operation")
+    int dayCount;
+
+    @Label("Outcome")
+    @Description("OK, the failed validation or the simple name of the exception")
+    String outcome;
+
+    /**
+     * Commits the event with the given values, if it is recorded.
+     * @param operation
+     * @param workMonth
+     * @param day
+     * @param outcome
+     */
+    void commit(String operation, WorkMonth workMonth, int day, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.month = String.valueOf(workMonth.getDate());
+            this.day = day;
+            this.dayCount = workMonth.getNumberOfDays();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class AggregateCubeTest {
+    
+    public AggregateCubeTest() {
+    }
+
+    @Test
+    public void testBucketsFollowAddChangeAndDelete() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        AggregateCube cube = AggregateCube.attach(timeLogger);
+        WorkMonth september = new WorkMonth(2016, 9);
+        WorkMonth october = new WorkMonth(2016, 10);
+        timeLogger.addMonth(september);
+        timeLogger.addMonth(october);
+        WorkDay thursday = new WorkDay(2016, 9, 1);
+        WorkDay monday = new WorkDay(2016, 9, 5);
+        WorkDay octoberDay = new WorkDay(2016, 10, 3);
+        september.addWorkDay(thursday);
+        september.addWorkDay(monday);
+        october.addWorkDay(octoberDay);
+        
+        thursday.addTask(new Task("LT-1234", null, 7, 30, 8, 45));
+        Task changing = new Task("LT-1234", null, 9, 0, 10, 0);
+        thursday.addTask(changing);
+        monday.addTask(new Task("LT-1234", null, 7, 0, 8, 0));
+        octoberDay.addTask(new Task("LT-1234", null, 7, 0, 7, 30));
+        
+        assertEquals(135, cube.getMinutesPerDay("LT-1234", LocalDate.of(2016, 9, 1)));
+        assertEquals(135, cube.getMinutesPerWeek("LT-1234", LocalDate.of(2016, 9, 4)));
+        assertEquals(60, cube.getMinutesPerWeek("LT-1234", LocalDate.of(2016, 9, 5)));
+        assertEquals(195, cube.getMinutesPerMonth("LT-1234", YearMonth.of(2016, 9)));
+        assertEquals(195, cube.getMinutesPerQuarter("LT-1234", 2016, 3));
+        assertEquals(30, cube.getMinutesPerQuarter("LT-1234", 2016, 4));
+        assertEquals(225, cube.getMinutesPerYear("LT-1234", 2016));
+        assertEquals(225, cube.getMinutes("LT-1234"));
+        
+        changing.setTaskId("4321");
+        changing.setEndTime(10, 30);
+        assertEquals(75, cube.getMinutesPerDay("LT-1234", LocalDate.of(2016, 9, 1)));
+        assertEquals(90, cube.getMinutesPerDay("4321", LocalDate.of(2016, 9, 1)));
+        
+        thursday.deleteTask(changing);
+        assertEquals(0, cube.getMinutes("4321"));
+        assertEquals(165, cube.getMinutes("LT-1234"));
+        assertEquals(0, cube.getMinutes("LT-9999"));
+    }
+
+    @Test
+    public void testAttachCountsExistingTasks() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        WorkMonth month = new WorkMonth(2016, 9);
+        WorkDay day = new WorkDay(2016, 9, 1);
+        day.addTask(new Task("LT-1234", null, 7, 30, 8, 45));
+        month.addWorkDay(day);
+        timeLogger.addMonth(month);
+        
+        AggregateCube cube = AggregateCube.attach(timeLogger);
+        WorkDay addedDay = new WorkDay(2016, 9, 2);
+        addedDay.addTask(new Task("LT-1234", null, 7, 0, 8, 0));
+        month.addWorkDay(addedDay);
+        
+        assertEquals(135, cube.getMinutesPerMonth("LT-1234", YearMonth.of(2016, 9)));
+    }
+
+    @Test
+    public void testUnfinishedTaskCountsWhenFinished() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        AggregateCube cube = AggregateCube.attach(timeLogger);
+        WorkMonth month = new WorkMonth(2016, 9);
+        timeLogger.addMonth(month);
+        WorkDay day = new WorkDay(2016, 9, 1);
+        month.addWorkDay(day);
+        Task task = new Task("LT-1234");
+        day.startTask(task, "7:30");
+        assertEquals(0, cube.getMinutes("LT-1234"));
+        
+        task.setEndTime("8:00");
+        assertEquals(30, cube.getMinutes("LT-1234"));
+    }
+}
@@ -0,0 +1,40 @@
+package timelogger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class CommentDictionaryTest {
+
+    public CommentDictionaryTest() {
+    }
+
+    @Test
+    public void testTasksShareTheComment() throws Exception {
+        Task task = new Task("LT-0001", new String("code review"), 8, 0, 9, 0);
+        Task otherTask = new Task("LT-0002", new String("code review"), 9, 0, 10, 0);
+        assertSame(task.getComment(), otherTask.getComment());
+        assertEquals("code review", task.getComment());
+    }
+
+    @Test
+    public void testNullComment() {
+        assertNull(CommentDictionary.intern(null));
+    }
+
+    @Test
+    public void testUnusedCommentsAreRemoved() throws InterruptedException {
+        int sizeBefore = CommentDictionary.size();
+        for (int i = 0; i < 1000; i++) {
+            CommentDictionary.intern("unused comment " + i);
+        }
+        for (int i = 0; i < 20 && CommentDictionary.size() >= sizeBefore + 1000; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(CommentDictionary.size() < sizeBefore + 1000);
+    }
+}
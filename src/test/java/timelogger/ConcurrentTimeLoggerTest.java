@@ -0,0 +1,177 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class ConcurrentTimeLoggerTest {
+
+    private static final int THREADS = 8;
+    private static final int DAYS_PER_MONTH = 20;
+    private static final int QUARTERS_PER_DAY = 48;
+    
+    public ConcurrentTimeLoggerTest() {
+    }
+
+    @Test
+    public void testCheckAndInsertIsAtomic() throws Exception {
+        ConcurrentTimeLogger timeLogger = new ConcurrentTimeLogger();
+        List<ValidationResult> results = runInParallel(thread -> {
+            timeLogger.getOrAddMonth(YearMonth.of(2016, 9));
+            return timeLogger.tryAddWorkDay(new WorkDay(2016, 9, 1), true);
+        });
+        
+        assertEquals(1, timeLogger.getTimeLogger().getMonths().size());
+        assertEquals(1, Collections.frequency(results, ValidationResult.OK));
+        assertEquals(THREADS - 1, Collections.frequency(results, ValidationResult.NOT_NEW_DATE));
+    }
+
+    @Test
+    public void testStressAddAndDeleteTasks() throws Exception {
+        ConcurrentTimeLogger timeLogger = new ConcurrentTimeLogger();
+        List<LocalDate> dates = new ArrayList<>();
+        for (int month = 9; month <= 10; month++) {
+            for (int dayOfMonth = 1; dayOfMonth <= DAYS_PER_MONTH; dayOfMonth++) {
+                dates.add(LocalDate.of(2016, month, dayOfMonth));
+            }
+        }
+        AtomicBoolean readerFailed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            long max = DAYS_PER_MONTH * QUARTERS_PER_DAY * 15L;
+            while (!done.get()) {
+                long sum = timeLogger.getSumPerMonth(YearMonth.of(2016, 9));
+                if (sum < 0 || sum > max) {
+                    readerFailed.set(true);
+                }
+            }
+        });
+        reader.start();
+
+        List<Integer> addedTasks = runInParallel(thread -> {
+            Random random = new Random(thread);
+            List<LocalDate> shuffledDates = new ArrayList<>(dates);
+            Collections.shuffle(shuffledDates, random);
+            int added = 0;
+            for (LocalDate date : shuffledDates) {
+                timeLogger.tryAddWorkDay(new WorkDay(date.getYear(), date.getMonthValue(), 
+                        date.getDayOfMonth()), true);
+                List<Task> ownTasks = new ArrayList<>();
+                for (int quarter = 0; quarter < QUARTERS_PER_DAY; quarter++) {
+                    int start = ((quarter * 7 + thread) % QUARTERS_PER_DAY) * 15;
+                    Task task = new Task(String.format("LT-%04d", thread), null, 
+                            start / 60, start % 60, (start + 15) / 60, (start + 15) % 60);
+                    if (timeLogger.tryAddTask(date, task).isValid()) {
+                        added++;
+                        ownTasks.add(task);
+                    }
+                }
+                if (!ownTasks.isEmpty()) {
+                    Task task = ownTasks.get(0);
+                    assertTrue(timeLogger.withDay(date, day -> {
+                        day.deleteTask(task);
+                        return day.tryAddTask(task);
+                    }).isValid());
+                }
+            }
+            return added;
+        });
+        done.set(true);
+        reader.join();
+
+        assertFalse(readerFailed.get());
+        assertEquals(dates.size() * QUARTERS_PER_DAY, 
+                addedTasks.stream().mapToInt(Integer::intValue).sum());
+        for (LocalDate date : dates) {
+            assertEquals(QUARTERS_PER_DAY * 15, timeLogger.getSumPerDay(date));
+            assertEquals(QUARTERS_PER_DAY, timeLogger.getTasks(date).size());
+        }
+        assertEquals(DAYS_PER_MONTH * QUARTERS_PER_DAY * 15, timeLogger.getSumPerMonth(YearMonth.of(2016, 10)));
+        
+        Task deleted = timeLogger.getTasks(dates.get(0)).get(0);
+        assertTrue(timeLogger.deleteTask(dates.get(0), deleted));
+        assertFalse(timeLogger.deleteTask(dates.get(0), deleted));
+        assertEquals(QUARTERS_PER_DAY * 15 - 15, timeLogger.getSumPerDay(dates.get(0)));
+    }
+
+    @Test
+    public void testTaskLedgerCreatedDuringChanges() throws Exception {
+        ConcurrentTimeLogger timeLogger = new ConcurrentTimeLogger();
+        List<Integer> addedTasks = runInParallel(thread -> {
+            int added = 0;
+            for (int dayOfMonth = 1; dayOfMonth <= DAYS_PER_MONTH; dayOfMonth++) {
+                LocalDate date = LocalDate.of(2016, 9, dayOfMonth);
+                timeLogger.tryAddWorkDay(new WorkDay(2016, 9, dayOfMonth), true);
+                int start = thread * 15;
+                Task task = new Task(String.format("LT-%04d", thread), null, 
+                        start / 60, start % 60, (start + 15) / 60, (start + 15) % 60);
+                if (timeLogger.tryAddTask(date, task).isValid()) {
+                    added++;
+                }
+                if (thread == 0 && dayOfMonth == DAYS_PER_MONTH / 2) {
+                    timeLogger.getTaskLedger();
+                }
+            }
+            return added;
+        });
+        
+        TaskLedger ledger = timeLogger.getTaskLedger();
+        assertSame(ledger, timeLogger.getTimeLogger().getTaskLedger());
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals(addedTasks.get(thread) * 15L, ledger.getMinutes(String.format("LT-%04d", thread)));
+            assertEquals(addedTasks.get(thread).intValue(), ledger.getTaskCount(String.format("LT-%04d", thread)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTaskToMissingDay() throws Exception {
+        new ConcurrentTimeLogger().tryAddTask(LocalDate.of(2016, 9, 1), new Task("LT-0001", null, 7, 0, 8, 0));
+    }
+
+    /**
+     * Runs the given task on THREADS threads at once, returns with their results.
+     */
+    private static <T> List<T> runInParallel(ThreadTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<T>) () -> {
+                    start.await();
+                    return task.run(thread);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask<T> {
+
+        T run(int thread) throws Exception;
+    }
+}
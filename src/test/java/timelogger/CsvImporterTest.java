@@ -0,0 +1,109 @@
+package timelogger;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class CsvImporterTest {
+    
+    public CsvImporterTest() {
+    }
+
+    @Test
+    public void testImportCreatesMonthsAndDays() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        String csv = "date,taskId,comment,startTime,endTime,requiredMinPerDay\n"
+                + "2016-09-01,LT-1234,\"review, part \"\"1\"\"\",7:30,8:45,420\n"
+                + "2016-09-01,1234,,8:45,9:45,\n"
+                + "\n"
+                + "2016-10-03,LT-0001,meeting,10:00,11:00,\n";
+        ImportReport report = new CsvImporter(timeLogger, true, 2, 1).importFrom(new StringReader(csv));
+        assertEquals(3, report.getRowCount());
+        assertEquals(3, report.getImportedRowCount());
+        assertEquals(0, report.getErrorCount());
+        WorkDay day = timeLogger.getMonth(YearMonth.of(2016, 9)).getDay(1);
+        assertEquals(420, day.getRequiredMinPerday());
+        assertEquals(135, day.getSumPerDay());
+        assertEquals("review, part \"1\"", day.getTasks().get(0).getComment());
+        assertEquals(60, timeLogger.getMonth(YearMonth.of(2016, 10)).getSumPerMonth());
+    }
+
+    @Test
+    public void testImportReportsRowErrors() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        String csv = "2016-09-01,LT-1234,,7:30,8:45,\n"
+                + "2016-09-01,LT-1235,,8:00,9:00,\n"
+                + "2016-09-01,LT-12345,,9:00,10:00,\n"
+                + "2016-09-01,LT-1236,,10:00,9:00,\n"
+                + "2016-09-01,LT-1237,,ten,11:00,\n"
+                + "2016-09-03,LT-1238,,10:00,11:00,\n"
+                + "2016-09-31,LT-1239,,10:00,11:00,\n"
+                + "2016-09-02,LT-1240,10:00,11:00\n"
+                + "2016-09-02,LT-1241,,10:00,11:00,\n"
+                + "2016-09-05,LT-1242,,10:00,11:00,-1\n";
+        ImportReport report = new CsvImporter(timeLogger, false, 3, 4).importFrom(new StringReader(csv));
+        assertEquals(10, report.getRowCount());
+        assertEquals(2, report.getImportedRowCount());
+        assertEquals(8, report.getErrorCount());
+        long[] expectedLines = {2, 3, 4, 5, 6, 7, 8, 10};
+        for (int i = 0; i < expectedLines.length; i++) {
+            assertEquals(expectedLines[i], report.getErrors().get(i).getLineNumber());
+        }
+        assertEquals(ValidationResult.NOT_SEPARATED_TIMES.getMessage(), report.getErrors().get(0).getMessage());
+        assertEquals(ValidationResult.WEEKEND_NOT_ENABLED.getMessage(), report.getErrors().get(4).getMessage());
+        assertEquals(ValidationResult.NEGATIVE_MINUTES_OF_WORK.getMessage(), report.getErrors().get(7).getMessage());
+        assertFalse(timeLogger.getMonth(YearMonth.of(2016, 9)).containsDay(5));
+    }
+
+    @Test
+    public void testImportIntoSegmentedTimeLogger() throws Exception {
+        Path directory = Files.createTempDirectory("timelogger-import");
+        try {
+            StringBuilder csv = new StringBuilder();
+            for (int dayOfMonth = 1; dayOfMonth <= 10; dayOfMonth++) {
+                for (int month = 9; month <= 11; month++) {
+                    csv.append(String.format("2016-%02d-%02d,LT-0001,,8:00,9:00,%n", month, dayOfMonth));
+                }
+            }
+            TimeLogger timeLogger = TimeLogger.openSegmented(directory, 1);
+            ImportReport report = new CsvImporter(timeLogger, true, 2, 4)
+                    .importFrom(new StringReader(csv.toString()));
+            assertEquals(30, report.getImportedRowCount());
+            timeLogger.flush();
+
+            TimeLogger reopened = TimeLogger.openSegmented(directory, 1);
+            for (int month = 9; month <= 11; month++) {
+                WorkMonth workMonth = reopened.getMonth(YearMonth.of(2016, month));
+                assertEquals(10, workMonth.getDays().size());
+                assertEquals(600, workMonth.getSumPerMonth());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitLine() {
+        assertArrayEquals(new String[]{"a", "b,c", "", "\"", "e", ""}, 
+                CsvImporter.splitLine("a,\"b,c\",,\"\"\"\",e,"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitLineTooManyFields() {
+        CsvImporter.splitLine("a,b,c,d,e,f,g");
+    }
+}
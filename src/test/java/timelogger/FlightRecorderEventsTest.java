@@ -0,0 +1,97 @@
+package timelogger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class FlightRecorderEventsTest {
+
+    public FlightRecorderEventsTest() {
+    }
+
+    private static List<RecordedEvent> record(String eventName, Runnable operations) throws Exception {
+        Path file = Files.createTempFile("timelogger", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutStackTrace();
+            recording.start();
+            operations.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testWorkDayEvents() throws Exception {
+        WorkDay day = new WorkDay(2016, 9, 2);
+        Task first = new Task("LT-0001", null, 8, 0, 9, 0);
+        Task overlapping = new Task("LT-0002", null, 8, 30, 9, 30);
+        List<RecordedEvent> events = record("timelogger.WorkDay", () -> {
+            try {
+                day.addTask(first);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            try {
+                day.addTask(overlapping);
+                fail("The overlapping task was added.");
+            } catch (Exception expected) {
+            }
+            day.tryAddTask(overlapping);
+        });
+        assertEquals(3, events.size());
+        RecordedEvent added = events.get(0);
+        assertEquals("addTask", added.getString("operation"));
+        assertEquals("2016-09", added.getString("month"));
+        assertEquals(2, added.getInt("day"));
+        assertEquals(1, added.getInt("addedTasks"));
+        assertEquals(1, added.getInt("taskCount"));
+        assertEquals("OK", added.getString("outcome"));
+        assertEquals("NotSeparatedTimesException", events.get(1).getString("outcome"));
+        assertEquals(0, events.get(1).getInt("addedTasks"));
+        assertEquals("tryAddTask", events.get(2).getString("operation"));
+        assertEquals("NOT_SEPARATED_TIMES", events.get(2).getString("outcome"));
+    }
+
+    @Test
+    public void testWorkMonthEvents() throws Exception {
+        WorkMonth month = new WorkMonth(2016, 9);
+        List<RecordedEvent> events = record("timelogger.WorkMonth", () -> {
+            month.tryAddWorkDay(new WorkDay(2016, 9, 2), false);
+            month.tryAddWorkDay(new WorkDay(2016, 9, 3), false);
+            month.getSumPerMonth();
+        });
+        List<String> operations = events.stream()
+                .map(event -> event.getString("operation") + " " + event.getInt("day") 
+                        + " " + event.getInt("dayCount") + " " + event.getString("outcome"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("tryAddWorkDay 2 1 OK", "tryAddWorkDay 3 1 WEEKEND_NOT_ENABLED",
+                "getSumPerMonth 0 1 OK"), operations);
+        assertEquals("2016-09", events.get(0).getString("month"));
+    }
+
+    @Test
+    public void testSeparationCheckEvent() throws Exception {
+        WorkDay day = new WorkDay(2016, 9, 2);
+        day.addTask(new Task("LT-0001", null, 8, 0, 9, 0));
+        day.addTask(new Task("LT-0002", null, 9, 0, 10, 0));
+        Task candidate = new Task("LT-0003", null, 10, 0, 11, 0);
+        List<RecordedEvent> events = record("timelogger.SeparationCheck",
+                () -> Util.isSeparatedTime(candidate, day.getTasks()));
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getInt("taskCount"));
+        assertTrue(events.get(0).getBoolean("separated"));
+    }
+}
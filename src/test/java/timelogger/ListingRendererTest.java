@@ -0,0 +1,49 @@
+package timelogger;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class ListingRendererTest {
+    
+    public ListingRendererTest() {
+    }
+
+    @Test
+    public void testRenderNumbersItems() {
+        StringWriter output = new StringWriter();
+        ListingRenderer renderer = new ListingRenderer(new PrintWriter(output), 
+                ListingRenderer.NO_PAGING, () -> false);
+        
+        assertEquals(3, renderer.render(List.of("a", "b", "c"), String::toUpperCase));
+        assertEquals(String.join(System.lineSeparator(), "1. A", "2. B", "3. C", ""), output.toString());
+    }
+
+    @Test
+    public void testRenderStopsAfterPage() {
+        StringWriter output = new StringWriter();
+        AtomicInteger pageBreaks = new AtomicInteger();
+        ListingRenderer renderer = new ListingRenderer(new PrintWriter(output), 2, 
+                () -> pageBreaks.incrementAndGet() < 2);
+        
+        assertEquals(4, renderer.render(List.of(1, 2, 3, 4, 5), String::valueOf));
+        assertEquals(2, pageBreaks.get());
+    }
+
+    @Test
+    public void testRenderWithoutPageBreakAtEnd() {
+        AtomicInteger pageBreaks = new AtomicInteger();
+        ListingRenderer renderer = new ListingRenderer(new PrintWriter(new StringWriter()), 2, 
+                () -> pageBreaks.incrementAndGet() > 0);
+        
+        assertEquals(4, renderer.render(List.of(1, 2, 3, 4), String::valueOf));
+        assertEquals(1, pageBreaks.get());
+    }
+}
@@ -0,0 +1,59 @@
+package timelogger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class LongLongHashMapTest {
+    
+    public LongLongHashMapTest() {
+    }
+
+    @Test
+    public void testAddAndGet() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.add(1L << 32, 15);
+        map.add(1L << 32, 30);
+        map.add(-7, 1);
+        
+        assertEquals(45, map.get(1L << 32));
+        assertEquals(1, map.get(-7));
+        assertEquals(0, map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testZeroValueIsRemoved() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.add(3, 15);
+        map.add(3, -15);
+        
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(3));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(16);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2000);
+            long delta = random.nextInt(3) - 1;
+            map.add(key, delta);
+            expected.merge(key, delta, Long::sum);
+            expected.remove(key, 0L);
+        }
+        
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(expected.getOrDefault(key, 0L).longValue(), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package timelogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class MonthSegmentStoreTest {
+
+    private Path directory;
+
+    public MonthSegmentStoreTest() {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("timelogger-segments");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static WorkMonth monthWithTask(int month, int endMinute) throws Exception {
+        WorkMonth workMonth = new WorkMonth(2016, month);
+        WorkDay day = new WorkDay(2016, month, 1);
+        workMonth.addWorkDay(day, true);
+        day.addTask(new Task("LT-" + (1000 + month), null, 8, 0, 8, endMinute));
+        return workMonth;
+    }
+
+    @Test
+    public void testOnlyRecentMonthsAreLoaded() throws Exception {
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 2);
+        for (int month = 1; month <= 5; month++) {
+            timeLogger.addMonth(monthWithTask(month, 15));
+        }
+        MonthSegmentStore store = timeLogger.getSegmentStore();
+        assertEquals(2, store.getLoadedMonthCount());
+        assertEquals(3, store.getEvictionCount());
+        assertEquals(3, store.getWriteCount());
+        assertEquals(5, timeLogger.getMonths().size());
+        assertTrue(timeLogger.containsMonth(YearMonth.of(2016, 1)));
+        assertEquals(0, store.getLoadCount());
+
+        assertEquals(15, timeLogger.getMonth(YearMonth.of(2016, 1)).getSumPerMonth());
+        assertEquals(1, store.getLoadCount());
+        assertEquals(2, store.getLoadedMonthCount());
+    }
+
+    @Test
+    public void testChangesAreWrittenBack() throws Exception {
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 2);
+        for (int month = 1; month <= 5; month++) {
+            timeLogger.addMonth(monthWithTask(month, 15));
+        }
+        timeLogger.getMonth(YearMonth.of(2016, 1)).getDay(1).addTask(new Task("0001", null, 9, 0, 9, 30));
+        timeLogger.getMonth(YearMonth.of(2016, 2));
+        timeLogger.getMonth(YearMonth.of(2016, 3));
+        WorkDay day = timeLogger.getMonth(YearMonth.of(2016, 5)).getDay(1);
+        day.getTasks().get(0).setEndTime("09:00");
+        timeLogger.flush();
+
+        TimeLogger reopened = TimeLogger.openSegmented(directory, 1);
+        List<Long> sums = new ArrayList<>();
+        reopened.getMonthsInOrder().forEach(month -> sums.add(month.getSumPerMonth()));
+        assertEquals(List.of(45L, 15L, 15L, 15L, 60L), sums);
+        assertEquals(1, reopened.getSegmentStore().getLoadedMonthCount());
+    }
+
+    @Test
+    public void testQueryLoadsMonthsInRange() throws Exception {
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 1);
+        for (int month = 1; month <= 5; month++) {
+            timeLogger.addMonth(monthWithTask(month, 15));
+        }
+        timeLogger.flush();
+        TimeLogger reopened = TimeLogger.openSegmented(directory, 1);
+        List<String> taskIds = reopened.query(LocalDate.of(2016, 2, 1), LocalDate.of(2016, 3, 31))
+                .map(Task::getTaskId).collect(Collectors.toList());
+        assertEquals(List.of("LT-1002", "LT-1003"), taskIds);
+        assertEquals(2, reopened.getSegmentStore().getLoadCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSealedMonthStaysSealedAfterEviction() throws Exception {
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 1);
+        timeLogger.addMonth(monthWithTask(1, 15));
+        timeLogger.getMonth(YearMonth.of(2016, 1)).seal();
+        timeLogger.addMonth(monthWithTask(2, 15));
+        timeLogger.flush();
+
+        TimeLogger reopened = TimeLogger.openSegmented(directory, 1);
+        WorkMonth january = reopened.getMonth(YearMonth.of(2016, 1));
+        assertTrue(january.isSealed());
+        assertEquals(15, january.getSumPerMonth());
+        january.getDay(1).deleteTask(january.getDay(1).getTasks().get(0));
+    }
+
+    @Test
+    public void testDuplicatedMonth() throws Exception {
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 1);
+        timeLogger.addMonth(new WorkMonth(2016, 1));
+        timeLogger.addMonth(new WorkMonth(2016, 2));
+        assertEquals(ValidationResult.NOT_NEW_MONTH, timeLogger.tryAddMonth(new WorkMonth(2016, 1)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmptyDirectory() throws Exception {
+        TimeLogger.openSegmented(directory, 1).getMonths();
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testCorruptedSegment() throws Exception {
+        Files.write(directory.resolve("month-2016-01.seg"), new byte[]{1, 2, 3});
+        TimeLogger timeLogger = TimeLogger.openSegmented(directory, 1);
+        assertTrue(timeLogger.containsMonth(YearMonth.of(2016, 1)));
+        timeLogger.getMonth(YearMonth.of(2016, 1));
+    }
+}
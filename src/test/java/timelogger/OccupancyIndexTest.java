@@ -0,0 +1,61 @@
+package timelogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import timelogger.exceptions.EmptyTimeFieldException;
+import timelogger.exceptions.InvalidTaskIdException;
+import timelogger.exceptions.NoTaskIdException;
+import timelogger.exceptions.NotExpectedTimeOrderException;
+
+/**
+ *
+ * @author Dubi
+ */
+public class OccupancyIndexTest {
+
+    public OccupancyIndexTest() {
+    }
+
+    @Test
+    public void testZeroLengthTaskOnStartOfOtherTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException {
+        OccupancyIndex index = new OccupancyIndex();
+        index.add(new Task("1234", "", 8, 0, 9, 0));
+        assertFalse(index.isSeparated(new Task("1234", "", 8, 0, 8, 0)));
+    }
+
+    @Test
+    public void testZeroLengthTaskOnEndOfOtherTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException {
+        OccupancyIndex index = new OccupancyIndex();
+        index.add(new Task("1234", "", 8, 0, 9, 0));
+        assertTrue(index.isSeparated(new Task("1234", "", 9, 0, 9, 0)));
+    }
+
+    @Test
+    public void testTaskAroundZeroLengthTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException {
+        OccupancyIndex index = new OccupancyIndex();
+        index.add(new Task("1234", "", 9, 0, 9, 0));
+        assertFalse(index.isSeparated(new Task("1234", "", 9, 0, 10, 0)));
+        assertTrue(index.isSeparated(new Task("1234", "", 8, 0, 9, 0)));
+    }
+
+    @Test
+    public void testIndexAgreesWithIsSeparatedTime() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("1111", "", 0, 0, 0, 45));
+        tasks.add(new Task("2222", "", 7, 30, 7, 30));
+        tasks.add(new Task("3333", "", 10, 15, 12, 0));
+        tasks.add(new Task("4444", "", 23, 0, 23, 45));
+        OccupancyIndex index = new OccupancyIndex();
+        index.rebuild(tasks);
+
+        for (int start = 0; start < 24 * 60; start += 15) {
+            for (int length = 0; length <= 120 && start + length < 24 * 60; length += 15) {
+                int end = start + length;
+                Task task = new Task("5555", "", start / 60, start % 60, end / 60, end % 60);
+                assertEquals(Util.isSeparatedTime(task, tasks), index.isSeparated(task));
+            }
+        }
+    }
+}
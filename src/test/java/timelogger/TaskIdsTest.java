@@ -0,0 +1,64 @@
+package timelogger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TaskIdsTest {
+
+    public TaskIdsTest() {
+    }
+
+    @Test
+    public void testEncodeRedmineTaskId() {
+        assertEquals(1234, TaskIds.encode("1234"));
+        assertEquals(0, TaskIds.encode("0000"));
+    }
+
+    @Test
+    public void testEncodeLTTaskId() {
+        assertEquals(11234, TaskIds.encode("LT-1234"));
+        assertEquals(19999, TaskIds.encode("LT-9999"));
+    }
+
+    @Test
+    public void testEncodeInvalidTaskIds() {
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode(null));
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode(""));
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode("10101"));
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode("LT-12121"));
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode("LX-1212"));
+        assertEquals(TaskIds.NO_CODE, TaskIds.encode("12a4"));
+    }
+
+    @Test
+    public void testDecodeIsInverseOfEncode() {
+        for (int code = 0; code < TaskIds.CODE_COUNT; code++) {
+            assertEquals(code, TaskIds.encode(TaskIds.decode(code)));
+        }
+        assertEquals("0042", TaskIds.decode(42));
+        assertEquals("LT-0042", TaskIds.decode(10042));
+        assertNull(TaskIds.decode(TaskIds.NO_CODE));
+    }
+
+    @Test
+    public void testIsValidAgreesWithPattern() {
+        String[] ids = {"1234", "LT-1234", "", "123", "12345", "LT-123", "LT-12345",
+            "lt-1234", "LT 1234", "LT-12a4", "-1234", "\u0661\u0662\u0663\u0664", "LT-0000"};
+        for (String id : ids) {
+            assertEquals(id, id.matches("(LT-\\d{4}|\\d{4})"), TaskIds.isValid(id));
+        }
+    }
+
+    @Test
+    public void testIsValidOnCharSequence() {
+        StringBuilder line = new StringBuilder("LT-4321");
+        assertTrue(TaskIds.isValid(line));
+        line.setCharAt(0, 'X');
+        assertFalse(TaskIds.isValid(line));
+        assertFalse(TaskIds.isValid(null));
+    }
+}
@@ -0,0 +1,104 @@
+package timelogger;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TaskLedgerTest {
+
+    private TimeLogger timeLogger;
+    private WorkMonth month;
+    
+    public TaskLedgerTest() {
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        timeLogger = new TimeLogger();
+        month = new WorkMonth(2016, 9);
+        timeLogger.addMonth(month);
+    }
+
+    @Test
+    public void testTotalsPerTaskId() throws Exception {
+        WorkDay first = addDay(1);
+        first.addTask(new Task("LT-1234", null, 7, 30, 8, 45));
+        TaskLedger ledger = timeLogger.getTaskLedger();
+        WorkDay last = addDay(5);
+        last.addTask(new Task("LT-1234", null, 7, 0, 8, 0));
+        last.addTask(new Task("1234", null, 8, 0, 8, 30));
+        Task invalid = new Task("LT-0001", null, 9, 0, 10, 0);
+        last.addTask(invalid);
+        invalid.setTaskId("Not valid");
+        
+        assertSame(ledger, timeLogger.getTaskLedger());
+        assertEquals(135, ledger.getMinutes("LT-1234"));
+        assertEquals(2, ledger.getTaskCount("LT-1234"));
+        assertEquals(LocalDate.of(2016, 9, 1), ledger.getFirstDate("LT-1234"));
+        assertEquals(LocalDate.of(2016, 9, 5), ledger.getLastDate("LT-1234"));
+        assertEquals(2, ledger.getTaskIdCount());
+        assertEquals(0, ledger.getMinutes("Not valid"));
+        assertNull(ledger.getFirstDate("LT-9999"));
+    }
+
+    @Test
+    public void testBoundariesMoveOnDelete() throws Exception {
+        TaskLedger ledger = timeLogger.getTaskLedger();
+        Task firstTask = new Task("LT-1234", null, 7, 0, 8, 0);
+        Task lastTask = new Task("LT-1234", null, 7, 0, 8, 0);
+        WorkDay first = addDay(1);
+        WorkDay middle = addDay(6);
+        WorkDay last = addDay(9);
+        first.addTask(firstTask);
+        middle.addTask(new Task("LT-1234", null, 7, 0, 8, 0));
+        last.addTask(lastTask);
+        
+        first.deleteTask(firstTask);
+        last.deleteTask(lastTask);
+        assertEquals(LocalDate.of(2016, 9, 6), ledger.getFirstDate("LT-1234"));
+        assertEquals(LocalDate.of(2016, 9, 6), ledger.getLastDate("LT-1234"));
+        assertEquals(1, ledger.getTaskCount("LT-1234"));
+    }
+
+    @Test
+    public void testChangedTaskIdMovesTotals() throws Exception {
+        TaskLedger ledger = timeLogger.getTaskLedger();
+        Task task = new Task("LT-1234", "comment", 7, 0, 8, 0);
+        addDay(1).addTask(task);
+        task.setComment("other comment");
+        task.setEndTime(8, 30);
+        assertEquals(90, ledger.getMinutes("LT-1234"));
+        
+        task.setTaskId("LT-4321");
+        assertEquals(0, ledger.getMinutes("LT-1234"));
+        assertEquals(1, ledger.getTaskIdCount());
+        assertEquals(90, ledger.getMinutes("LT-4321"));
+        assertEquals(LocalDate.of(2016, 9, 1), ledger.getLastDate("LT-4321"));
+    }
+
+    @Test
+    public void testTopTaskIds() throws Exception {
+        TaskLedger ledger = timeLogger.getTaskLedger();
+        WorkDay day = addDay(1);
+        day.addTask(new Task("LT-0001", null, 7, 0, 7, 30));
+        day.addTask(new Task("LT-0002", null, 7, 30, 9, 0));
+        day.addTask(new Task("0003", null, 9, 0, 10, 0));
+        day.addTask(new Task("LT-0004", null, 10, 0, 11, 0));
+        
+        assertEquals(List.of("LT-0002", "0003", "LT-0004"), ledger.getTopTaskIds(3));
+        assertEquals(4, ledger.getTopTaskIds(10).size());
+        assertEquals(List.of(), ledger.getTopTaskIds(0));
+    }
+
+    private WorkDay addDay(int dayOfMonth) throws Exception {
+        WorkDay day = new WorkDay(2016, 9, dayOfMonth);
+        month.addWorkDay(day, true);
+        return day;
+    }
+}
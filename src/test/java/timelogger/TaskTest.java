@@ -157,4 +157,28 @@ public class TaskTest {
         assertTrue(task.getEndTime().equals(LocalTime.of(12, 0)));
     }
     
+    @Test
+    public void testSetInvalidTaskIdIsKept() throws EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException{
+        Task task = new Task("1234");
+        task.setTaskId("not-an-id");
+        assertEquals("not-an-id", task.getTaskId());
+        task.setTaskId("LT-0001");
+        assertEquals("LT-0001", task.getTaskId());
+    }
+    
+    @Test
+    public void testValidateTaskId(){
+        assertEquals(ValidationResult.OK, Task.validateTaskId("LT-1234"));
+        assertEquals(ValidationResult.NO_TASK_ID, Task.validateTaskId(""));
+        assertEquals(ValidationResult.NO_TASK_ID, Task.validateTaskId(null));
+        assertEquals(ValidationResult.INVALID_TASK_ID, Task.validateTaskId("12345"));
+    }
+    
+    @Test
+    public void testValidateTimes(){
+        assertEquals(ValidationResult.OK, Task.validateTimes(LocalTime.of(7, 0), LocalTime.of(7, 0)));
+        assertEquals(ValidationResult.EMPTY_TIME_FIELD, Task.validateTimes(LocalTime.of(7, 0), null));
+        assertEquals(ValidationResult.NOT_EXPECTED_TIME_ORDER, Task.validateTimes(LocalTime.of(8, 0), LocalTime.of(7, 0)));
+    }
+    
 }
@@ -0,0 +1,208 @@
+package timelogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeLoggerJournalTest {
+
+    private Path directory;
+    
+    public TimeLoggerJournalTest() {
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("timelogger-journal");
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testReplayRestoresEveryChange() throws Exception {
+        String expected;
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            fill(journal.getTimeLogger());
+            expected = describe(journal.getTimeLogger());
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsState() throws Exception {
+        String expected;
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 3)) {
+            fill(journal.getTimeLogger());
+            expected = describe(journal.getTimeLogger());
+        }
+        assertTrue(Files.size(directory.resolve("journal")) < 200);
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 3)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+            journal.getTimeLogger().addMonth(new WorkMonth(2016, 11));
+            journal.compact();
+            expected = describe(journal.getTimeLogger());
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+        }
+    }
+
+    @Test
+    public void testReplayRestoresSealedMonth() throws Exception {
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            fill(journal.getTimeLogger());
+            journal.getTimeLogger().getMonth(YearMonth.of(2016, 9)).seal();
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            WorkMonth september = journal.getTimeLogger().getMonth(YearMonth.of(2016, 9));
+            assertTrue(september.isSealed());
+            assertEquals(ValidationResult.SEALED, september.tryAddWorkDay(new WorkDay(2016, 9, 30), true));
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws Exception {
+        String expected;
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            fill(journal.getTimeLogger());
+            expected = describe(journal.getTimeLogger());
+        }
+        Files.write(directory.resolve("journal"), new byte[]{0, 0, 0, 40, 1, 2, 3}, 
+                StandardOpenOption.APPEND);
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+            journal.getTimeLogger().addMonth(new WorkMonth(2016, 11));
+            expected = describe(journal.getTimeLogger());
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+        }
+    }
+
+    @Test
+    public void testWriteBehindCoalescesAndFlushesOnClose() throws Exception {
+        String expected;
+        try (TimeLoggerJournal journal = TimeLoggerJournal.openWriteBehind(directory, 0, 1000, 1, TimeUnit.HOURS)) {
+            fill(journal.getTimeLogger());
+            WorkDay day = journal.getTimeLogger().getMonth(YearMonth.of(2016, 9)).getDay(2);
+            Task task = day.getTasks().get(0);
+            assertTrue(journal.getCoalescedRecordCount() > 0);
+            journal.flush();
+            assertEquals(0, journal.getQueueDepth());
+            for (int minute = 15; minute < 60; minute += 15) {
+                task.setEndTime(10, minute);
+            }
+            day.getTasks().get(1).setComment("changed");
+            day.deleteTask(task);
+            day.getTasks().get(0).setComment("changed again");
+            day.setRequiredMinPerday(240);
+            
+            assertEquals(4, journal.getQueueDepth());
+            assertEquals(1, journal.getFlushCount());
+            expected = describe(journal.getTimeLogger());
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+        }
+    }
+
+    @Test
+    public void testWriteBehindFlushesAfterDelay() throws Exception {
+        try (TimeLoggerJournal journal = TimeLoggerJournal.openWriteBehind(directory, 0, 1000, 10, TimeUnit.MILLISECONDS)) {
+            journal.getTimeLogger().addMonth(new WorkMonth(2016, 9));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (journal.getFlushCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, journal.getFlushCount());
+            assertEquals(0, journal.getQueueDepth());
+            assertTrue(journal.getMaxFlushLatencyNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testBatchAddedTasksAreRecorded() throws Exception {
+        String expected;
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            TimeLogger timeLogger = journal.getTimeLogger();
+            AggregateCube cube = AggregateCube.attach(timeLogger);
+            WorkMonth september = new WorkMonth(2016, 9);
+            timeLogger.addMonth(september);
+            WorkDay day = new WorkDay(2016, 9, 2);
+            september.addWorkDay(day);
+            Task first = new Task("LT-0001", null, 8, 0, 9, 0);
+            day.addTasks(List.of(new Task("LT-0002", null, 9, 0, 9, 30), first));
+            assertEquals(60, cube.getMinutes("LT-0001"));
+            assertEquals(30, timeLogger.getTaskLedger().getMinutes("LT-0002"));
+            day.deleteTask(first);
+            assertEquals(0, cube.getMinutes("LT-0001"));
+            expected = describe(timeLogger);
+        }
+        try (TimeLoggerJournal journal = TimeLoggerJournal.open(directory, 0)) {
+            assertEquals(expected, describe(journal.getTimeLogger()));
+        }
+    }
+
+    private static void fill(TimeLogger timeLogger) throws Exception {
+        WorkMonth september = new WorkMonth(2016, 9);
+        timeLogger.addMonth(september);
+        WorkDay prefilled = new WorkDay(2016, 9, 1);
+        prefilled.addTask(new Task("LT-1234", "prefilled", 7, 30, 8, 45));
+        september.addWorkDay(prefilled);
+
+        WorkDay day = new WorkDay(420, 2016, 9, 2);
+        september.addWorkDay(day);
+        Task first = new Task("1234", null, 7, 0, 8, 0);
+        day.addTask(first);
+        Task started = new Task("LT-0001");
+        day.startTask(started, "9:00");
+        started.setEndTime(10, 10);
+        started.setComment("árvíztűrő");
+        started.setTaskId("renamed");
+        day.addTask(new Task("LT-0002", "deleted", 11, 0, 12, 0));
+        day.deleteTask(first);
+        day.setRequiredMinPerday(300);
+
+        WorkMonth october = new WorkMonth(2016, 10);
+        october.addWorkDay(new WorkDay(2016, 10, 3));
+        timeLogger.addMonth(october);
+    }
+
+    private static String describe(TimeLogger timeLogger) {
+        StringBuilder description = new StringBuilder();
+        for (WorkMonth month : timeLogger.getMonths()) {
+            description.append(month.getDate()).append(' ').append(month.getSumPerMonth())
+                    .append(' ').append(month.getRequiredMinPerMonth()).append('\n');
+            for (int dayOfMonth = 1; dayOfMonth <= 31; dayOfMonth++) {
+                if (month.getDay(dayOfMonth) != null) {
+                    description.append(month.getDay(dayOfMonth)).append('\n');
+                }
+            }
+        }
+        return description.toString();
+    }
+}
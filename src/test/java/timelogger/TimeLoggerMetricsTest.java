@@ -0,0 +1,59 @@
+package timelogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import timelogger.TimeLoggerMetrics.Operation;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeLoggerMetricsTest {
+
+    public TimeLoggerMetricsTest() {
+    }
+
+    @Test
+    public void testCountsAndLatencies() {
+        TimeLoggerMetrics metrics = new TimeLoggerMetrics();
+        metrics.add(Operation.ADD_TASK, 100);
+        metrics.add(Operation.ADD_TASK, 300);
+        metrics.add(Operation.GET_SUM_PER_MONTH, 10);
+        assertEquals(Long.valueOf(2), metrics.getOperationCounts().get("ADD_TASK"));
+        assertEquals(Long.valueOf(0), metrics.getOperationCounts().get("ADD_WORK_DAY"));
+        assertEquals(Long.valueOf(127), metrics.getP50LatencyNanos().get("ADD_TASK"));
+        assertEquals(Long.valueOf(300), metrics.getP99LatencyNanos().get("ADD_TASK"));
+        assertEquals(Long.valueOf(300), metrics.getMaxLatencyNanos().get("ADD_TASK"));
+        assertEquals(Long.valueOf(10), metrics.getMaxLatencyNanos().get("GET_SUM_PER_MONTH"));
+    }
+
+    @Test
+    public void testFailureCountsByException() {
+        TimeLoggerMetrics metrics = new TimeLoggerMetrics();
+        metrics.addFailure(Operation.ADD_TASK, ValidationResult.NOT_SEPARATED_TIMES.toException().getClass());
+        metrics.addFailure(Operation.ADD_TASK, ValidationResult.NOT_SEPARATED_TIMES.toException().getClass());
+        metrics.addFailure(Operation.VALIDATE_WORK_DAY, ValidationResult.NOT_NEW_DATE.toException().getClass());
+        Map<String, Long> failures = metrics.getFailureCounts();
+        assertEquals(2, failures.size());
+        assertEquals(Long.valueOf(2), failures.get("ADD_TASK:NotSeparatedTimesException"));
+        assertEquals(Long.valueOf(1), failures.get("VALIDATE_WORK_DAY:NotNewDateException"));
+
+        metrics.reset();
+        assertTrue(metrics.getFailureCounts().isEmpty());
+    }
+
+    @Test
+    public void testRegisteredAsPlatformMXBean() throws Exception {
+        TimeLoggerMetrics.register();
+        TimeLoggerMetrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TimeLoggerMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(TimeLoggerMetrics.ENABLED, server.getAttribute(name, "Enabled"));
+        assertNotNull(server.getAttribute(name, "OperationCounts"));
+    }
+}
@@ -0,0 +1,146 @@
+package timelogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeLoggerServerTest {
+
+    private TimeLoggerServer server;
+    private String baseUrl;
+    
+    public TimeLoggerServerTest() {
+    }
+    
+    @BeforeClass
+    public static void setUpClass() {
+        System.setProperty(TimeLoggerServer.NO_DELAY_PROPERTY, "true");
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = TimeLoggerServer.start(new ConcurrentTimeLogger(), 
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+    
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testAddDayAndTask() throws IOException {
+        assertEquals(201, send("POST", "/days", "date=2016-09-01&requiredMinPerDay=420").status);
+        Response task = send("POST", "/tasks", 
+                "date=2016-09-01&taskId=LT-0001&comment=code+review%2C+%22part%22&startTime=7:30&endTime=8:45");
+        assertEquals(201, task.status);
+        
+        Response day = send("GET", "/days/2016-09-01", null);
+        assertEquals(200, day.status);
+        assertEquals("{\"date\":\"2016-09-01\",\"sumPerDay\":75,\"requiredMinPerDay\":420,"
+                + "\"extraMinPerDay\":-345,\"tasks\":[{\"taskId\":\"LT-0001\","
+                + "\"comment\":\"code review, \\\"part\\\"\",\"startTime\":\"07:30\","
+                + "\"endTime\":\"08:45\",\"minutes\":75}]}", day.body);
+        assertEquals("[{\"date\":\"2016-09\",\"dayCount\":1,\"sumPerMonth\":75,"
+                + "\"requiredMinPerMonth\":420,\"extraMinPerMonth\":-345}]", 
+                send("GET", "/months", null).body);
+        assertEquals("{\"monthCount\":1,\"dayCount\":1,\"sumMin\":75,\"requiredMin\":420,"
+                + "\"extraMin\":-345}", send("GET", "/statistics", null).body);
+    }
+
+    @Test
+    public void testEmptyTimeLogger() throws IOException {
+        assertEquals("[]", send("GET", "/months", null).body);
+        assertEquals("{\"monthCount\":0,\"dayCount\":0,\"sumMin\":0,\"requiredMin\":0,"
+                + "\"extraMin\":0}", send("GET", "/statistics", null).body);
+    }
+
+    @Test
+    public void testInvalidRequests() throws IOException {
+        assertEquals(201, send("POST", "/days", "date=2016-09-01").status);
+        Response duplicate = send("POST", "/days", "date=2016-09-01");
+        assertEquals(400, duplicate.status);
+        assertEquals("{\"error\":\"This workday already exists.\"}", duplicate.body);
+        assertEquals(400, send("POST", "/days", "date=2016-09-03").status);
+        assertEquals(400, send("POST", "/tasks", "date=2016-09-01&taskId=1234&startTime=7:30").status);
+        assertEquals(400, send("POST", "/tasks", "date=2016-09-01&taskId=LT-1&startTime=7:30&endTime=8:00").status);
+        assertEquals(400, send("GET", "/days/2016-13-01", null).status);
+        assertEquals(404, send("POST", "/tasks", "date=2016-09-02&taskId=1234&startTime=7:30&endTime=8:00").status);
+        assertEquals(404, send("GET", "/days/2016-09-02", null).status);
+        assertEquals(404, send("GET", "/months/2016-10", null).status);
+        assertEquals(404, send("GET", "/unknown", null).status);
+        assertEquals(405, send("DELETE", "/months", null).status);
+    }
+
+    @Test
+    public void testInternalError() throws IOException {
+        TimeLogger timeLogger = new TimeLogger();
+        timeLogger.addListener(new TimeLoggerListener() {
+            @Override
+            public void workDayAdded(WorkMonth month, WorkDay day) {
+                throw new IllegalStateException("listener failed");
+            }
+        });
+        server.close();
+        server = TimeLoggerServer.start(new ConcurrentTimeLogger(timeLogger, 1),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+
+        Response response = send("POST", "/days", "date=2016-09-01");
+        assertEquals(500, response.status);
+        assertTrue(response.body.contains("listener failed"));
+        assertEquals(200, send("GET", "/months", null).status);
+    }
+
+    @Test
+    public void testSelfTest() throws Exception {
+        ServerSelfTest.Report report = new ServerSelfTest(20, 20).run();
+        
+        assertEquals(400, report.getRequestCount());
+        assertEquals(0, report.getErrorCount());
+        assertTrue(report.getP50LatencyNanos() <= report.getP99LatencyNanos());
+        assertTrue(report.getP99LatencyNanos() <= report.getMaxLatencyNanos());
+        assertTrue(report.getRequestsPerSecond() > 0);
+    }
+
+    private Response send(String method, String path, String form) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (form != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class Response {
+
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package timelogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeLoggerSnapshotTest {
+    
+    public TimeLoggerSnapshotTest() {
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        WorkMonth october = new WorkMonth(2016, 10);
+        WorkMonth september = new WorkMonth(2016, 9);
+        timeLogger.addMonth(october);
+        timeLogger.addMonth(september);
+        WorkDay day = new WorkDay(420, 2016, 9, 2);
+        september.addWorkDay(day);
+        day.addTask(new Task("LT-1234", "árvíztűrő", 7, 30, 8, 45));
+        day.addTask(new Task("0042", null, 9, 0, 9, 30));
+        Task unfinished = new Task("LT-0001");
+        day.startTask(unfinished, "10:00");
+        unfinished.setTaskId("renamed");
+        september.addWorkDay(new WorkDay(2016, 9, 1));
+        october.addWorkDay(new WorkDay(2016, 10, 3));
+
+        Path file = Files.createTempFile("timelogger", ".snapshot");
+        try {
+            timeLogger.saveSnapshot(file);
+            TimeLogger loaded = TimeLogger.loadSnapshot(file);
+
+            assertEquals(YearMonth.of(2016, 10), loaded.getMonths().get(0).getDate());
+            WorkMonth loadedSeptember = loaded.getMonth(YearMonth.of(2016, 9));
+            assertEquals(2, loadedSeptember.getDays().size());
+            assertEquals(september.getSumPerMonth(), loadedSeptember.getSumPerMonth());
+            assertEquals(september.getRequiredMinPerMonth(), loadedSeptember.getRequiredMinPerMonth());
+            List<Task> tasks = loadedSeptember.getDay(2).getTasks();
+            assertEquals(3, tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals(day.getTasks().get(i).toString(), tasks.get(i).toString());
+            }
+            assertEquals(ValidationResult.NOT_SEPARATED_TIMES, 
+                    loadedSeptember.getDay(2).validateTask(new Task("1234", null, 8, 0, 8, 15)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSealedMonthStaysSealed() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        WorkMonth september = new WorkMonth(2016, 9);
+        timeLogger.addMonth(september);
+        WorkDay day = new WorkDay(2016, 9, 2);
+        september.addWorkDay(day);
+        day.addTask(new Task("LT-1234", null, 7, 30, 8, 45));
+        september.seal();
+
+        Path file = Files.createTempFile("timelogger", ".snapshot");
+        try {
+            timeLogger.saveSnapshot(file);
+            WorkMonth loaded = TimeLogger.loadSnapshot(file).getMonth(YearMonth.of(2016, 9));
+            assertTrue(loaded.isSealed());
+            assertEquals(75, loaded.getSumPerMonth());
+            loaded.getDay(2).getTasks().get(0).setComment("changed");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testEmptyRoundTrip() throws Exception {
+        Path file = Files.createTempFile("timelogger", ".snapshot");
+        try {
+            new TimeLogger().saveSnapshot(file);
+            assertTrue(TimeLogger.loadSnapshot(file).getMonthsInOrder().isEmpty());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadCorruptedSnapshot() throws Exception {
+        Path file = Files.createTempFile("timelogger", ".snapshot");
+        try {
+            Files.write(file, new byte[]{0x54, 0x4C, 0x47, 0x53, 0, 0, 0, 1, 0, 0});
+            TimeLogger.loadSnapshot(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package timelogger;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -69,4 +73,134 @@ public class TimeLoggerTest {
         timelogger.addMonth(workmonth2);
     }
     
+    @Test
+    public void testGetMonthByDate() throws NotNewMonthException{
+        WorkMonth workmonth = new WorkMonth(2016, 4);
+        TimeLogger timelogger = new TimeLogger();
+        timelogger.addMonth(new WorkMonth(2016, 3));
+        timelogger.addMonth(workmonth);
+        
+        assertSame(workmonth, timelogger.getMonth(YearMonth.of(2016, 4)));
+        assertTrue(timelogger.containsMonth(YearMonth.of(2016, 3)));
+        assertFalse(timelogger.containsMonth(YearMonth.of(2016, 5)));
+        assertNull(timelogger.getMonth(YearMonth.of(2016, 5)));
+    }
+    
+    @Test
+    public void testGetMonthsInOrder() throws NotNewMonthException{
+        TimeLogger timelogger = new TimeLogger();
+        timelogger.addMonth(new WorkMonth(2017, 1));
+        timelogger.addMonth(new WorkMonth(2016, 12));
+        timelogger.addMonth(new WorkMonth(2016, 4));
+        
+        List<YearMonth> dates = timelogger.getMonthsInOrder().stream()
+                .map(WorkMonth::getDate)
+                .collect(Collectors.toList());
+        assertEquals(List.of(YearMonth.of(2016, 4), YearMonth.of(2016, 12),
+                YearMonth.of(2017, 1)), dates);
+        assertEquals(2017, timelogger.getMonths().get(0).getDate().getYear());
+    }
+    
+    @Test
+    public void testTryAddMonthReturnsResultInsteadOfThrowing(){
+        TimeLogger timelogger = new TimeLogger();
+        assertEquals(ValidationResult.OK, timelogger.tryAddMonth(new WorkMonth(2016, 4)));
+        assertEquals(ValidationResult.NOT_NEW_MONTH, timelogger.tryAddMonth(new WorkMonth(2016, 4)));
+        assertEquals(1, timelogger.getMonths().size());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMonthsAreReadOnly() {
+        TimeLogger timelogger = new TimeLogger();
+        timelogger.tryAddMonth(new WorkMonth(2016, 4));
+        timelogger.getMonths().add(new WorkMonth(2016, 5));
+    }
+    
+    @Test
+    public void testQueryReturnsTasksInRangeInOrder() throws Exception {
+        TimeLogger timelogger = new TimeLogger();
+        WorkMonth november = new WorkMonth(2024, 11);
+        WorkMonth december = new WorkMonth(2024, 12);
+        WorkMonth february = new WorkMonth(2025, 2);
+        WorkMonth march = new WorkMonth(2025, 3);
+        timelogger.addMonth(march);
+        timelogger.addMonth(february);
+        timelogger.addMonth(november);
+        timelogger.addMonth(december);
+        WorkDay beforeRange = new WorkDay(2024, 11, 19);
+        WorkDay first = new WorkDay(2024, 11, 20);
+        WorkDay second = new WorkDay(2024, 12, 2);
+        WorkDay last = new WorkDay(2025, 2, 10);
+        WorkDay afterRange = new WorkDay(2025, 2, 11);
+        november.addWorkDay(beforeRange);
+        november.addWorkDay(first);
+        december.addWorkDay(second);
+        february.addWorkDay(last);
+        february.addWorkDay(afterRange);
+        march.addWorkDay(new WorkDay(2025, 3, 3));
+        beforeRange.addTask(new Task("LT-0001", null, 7, 0, 8, 0));
+        first.addTask(new Task("LT-0003", null, 9, 0, 10, 0));
+        first.addTask(new Task("LT-0002", null, 7, 0, 8, 0));
+        second.addTask(new Task("LT-0004", null, 7, 0, 8, 0));
+        last.addTask(new Task("LT-0005", null, 7, 0, 8, 0));
+        afterRange.addTask(new Task("LT-0006", null, 7, 0, 8, 0));
+        
+        List<String> taskIds = timelogger.query(LocalDate.of(2024, 11, 20), LocalDate.of(2025, 2, 10))
+                .map(Task::getTaskId)
+                .collect(Collectors.toList());
+        assertEquals(List.of("LT-0002", "LT-0003", "LT-0004", "LT-0005"), taskIds);
+        assertSame(first, timelogger.query(LocalDate.of(2024, 11, 20), LocalDate.of(2025, 2, 10))
+                .findFirst().get().getWorkDay());
+        assertEquals(0, timelogger.query(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)).count());
+        assertEquals(1, timelogger.queryDays(LocalDate.of(2025, 2, 10), LocalDate.of(2025, 2, 10)).count());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryWithReversedRange() {
+        new TimeLogger().query(LocalDate.of(2016, 4, 2), LocalDate.of(2016, 4, 1));
+    }
+    
+    @Test
+    public void testListenerReceivesChanges() throws Exception {
+        TimeLogger timelogger = new TimeLogger();
+        List<String> events = new ArrayList<>();
+        timelogger.addListener(new TimeLoggerListener() {
+            @Override
+            public void monthAdded(WorkMonth month) {
+                events.add("month " + month.getDate());
+            }
+
+            @Override
+            public void workDayAdded(WorkMonth month, WorkDay day) {
+                events.add("day " + day.getActualDay());
+            }
+
+            @Override
+            public void taskAdded(WorkDay day, Task task) {
+                events.add("task " + task.getTaskId());
+            }
+
+            @Override
+            public void taskRemoved(WorkDay day, Task task, int index) {
+                events.add("removed " + index);
+            }
+
+            @Override
+            public void taskChanged(WorkDay day, Task task, String oldTaskId, long oldMinutes) {
+                events.add("changed " + oldTaskId + " " + oldMinutes);
+            }
+        });
+        WorkMonth workmonth = new WorkMonth(2016, 4);
+        timelogger.addMonth(workmonth);
+        WorkDay workday = new WorkDay(2016, 4, 14);
+        workmonth.addWorkDay(workday);
+        Task task = new Task("LT-0001", null, 7, 30, 8, 45);
+        workday.addTask(task);
+        task.setTaskId("LT-0002");
+        workday.deleteTask(task);
+        
+        assertEquals(List.of("month 2016-04", "day 2016-04-14", "task LT-0001", 
+                "changed LT-0001 75", "removed 0"), events);
+    }
+    
 }
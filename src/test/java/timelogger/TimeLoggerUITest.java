@@ -0,0 +1,73 @@
+package timelogger;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.YearMonth;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeLoggerUITest {
+    
+    public TimeLoggerUITest() {
+    }
+
+    @Test
+    public void testBatchModeRunsScriptWithoutPrompts() {
+        TimeLogger timeLogger = new TimeLogger();
+        String script = String.join("\n", 
+                "4", "2016", "9",
+                "5", "1", "1", "",
+                "6", "1", "1", "LT-0001", "review", "7:30",
+                "7", "1", "1", "1", "8:45",
+                "1",
+                "3", "1", "1",
+                "0",
+                "1");
+        StringWriter output = new StringWriter();
+        TimeLoggerUI timeLoggerUI = new TimeLoggerUI(timeLogger, 
+                new BufferedReader(new StringReader(script)), new PrintWriter(output), false);
+        
+        timeLoggerUI.startUI();
+        
+        assertEquals(6, timeLoggerUI.getCommandCount());
+        assertEquals(String.join(System.lineSeparator(), "Months:", "1. 2016-09", 
+                "1. taskId=LT-0001, comment=review, startTime=07:30, endTime=08:45", ""), 
+                output.toString());
+        assertEquals(75, timeLogger.getMonths().get(0).getSumPerMonth());
+    }
+
+    @Test
+    public void testBatchModeStopsAtEndOfInput() {
+        TimeLogger timeLogger = new TimeLogger();
+        StringWriter output = new StringWriter();
+        TimeLoggerUI timeLoggerUI = new TimeLoggerUI(timeLogger, 
+                new BufferedReader(new StringReader("4\n2016\n9\n8\n")), new PrintWriter(output), false);
+        
+        timeLoggerUI.startUI();
+        
+        assertEquals(2, timeLoggerUI.getCommandCount());
+        assertTrue(timeLogger.containsMonth(YearMonth.of(2016, 9)));
+    }
+
+    @Test
+    public void testEndOfInputWhilePagingMonths() throws Exception {
+        TimeLogger timeLogger = new TimeLogger();
+        for (int month = 0; month < 60; month++) {
+            timeLogger.addMonth(new WorkMonth(2000 + month / 12, month % 12 + 1));
+        }
+        StringWriter output = new StringWriter();
+        TimeLoggerUI timeLoggerUI = new TimeLoggerUI(timeLogger, 
+                new BufferedReader(new StringReader("1\n")), new PrintWriter(output), true);
+        
+        timeLoggerUI.startUI();
+        
+        assertEquals(1, timeLoggerUI.getCommandCount());
+        assertFalse(output.toString().contains("null"));
+    }
+}
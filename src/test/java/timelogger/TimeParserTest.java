@@ -0,0 +1,71 @@
+package timelogger;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Dubi
+ */
+public class TimeParserTest {
+
+    public TimeParserTest() {
+    }
+
+    @Test
+    public void testParseShortAndLongForm() {
+        assertEquals(LocalTime.of(7, 5), TimeParser.parse("7:5"));
+        assertEquals(LocalTime.of(7, 5), TimeParser.parse("07:05"));
+        assertEquals(23 * 60 + 59, TimeParser.parseMinuteOfDay("23:59"));
+    }
+
+    @Test
+    public void testParseReturnsSharedInstance() {
+        assertSame(TimeParser.parse("10:20"), TimeParser.parse("10:20"));
+    }
+
+    @Test
+    public void testMidnightAsTwentyFour() {
+        assertEquals(LocalTime.MIDNIGHT, TimeParser.parse("24:00"));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testParseHourOutOfRange() {
+        TimeParser.parse("24:01");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testParseMinuteOutOfRange() {
+        TimeParser.parse("7:60");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testParseUnparsedText() {
+        TimeParser.parse("7:30 ");
+    }
+
+    @Test
+    public void testParseAgreesWithFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("H:m");
+        String[] inputs = {"0:0", "007:05", "12:3", "-1:5", "+1:5", "7:", ":5", 
+            "", "7::5", " 7:5", "7:-0", "00000000000000000007:5", "1:00000000000000000001"};
+        for (String input : inputs) {
+            String expected;
+            String actual;
+            try {
+                expected = LocalTime.parse(input, formatter).toString();
+            } catch (DateTimeParseException e) {
+                expected = "invalid";
+            }
+            try {
+                actual = TimeParser.parse(input).toString();
+            } catch (DateTimeParseException e) {
+                actual = "invalid";
+            }
+            assertEquals(input, expected, actual);
+        }
+    }
+}
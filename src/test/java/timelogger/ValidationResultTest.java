@@ -0,0 +1,39 @@
+package timelogger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import timelogger.exceptions.NotSeparatedTimesException;
+
+/**
+ *
+ * @author Dubi
+ */
+public class ValidationResultTest {
+
+    public ValidationResultTest() {
+    }
+
+    @Test
+    public void testOkHasNoException() {
+        assertTrue(ValidationResult.OK.isValid());
+        assertNull(ValidationResult.OK.toException());
+    }
+
+    @Test
+    public void testExceptionsAreStackless() {
+        for (ValidationResult result : ValidationResult.values()) {
+            if (!result.isValid()) {
+                Exception exception = result.toException();
+                assertEquals(result.getMessage(), exception.getMessage());
+                assertEquals(0, exception.getStackTrace().length);
+            }
+        }
+    }
+
+    @Test
+    public void testExceptionType() {
+        assertTrue(ValidationResult.NOT_SEPARATED_TIMES.toException() 
+                instanceof NotSeparatedTimesException);
+        assertTrue(ValidationResult.SEALED.toException() instanceof IllegalStateException);
+    }
+}
@@ -2,6 +2,8 @@ package timelogger;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -10,6 +12,7 @@ import org.junit.Test;
 import static org.junit.Assert.*;
 import timelogger.exceptions.EmptyTimeFieldException;
 import timelogger.exceptions.FutureWorkException;
+import timelogger.exceptions.InvalidTaskBatchException;
 import timelogger.exceptions.InvalidTaskIdException;
 import timelogger.exceptions.NegativeMinutesOfWorkException;
 import timelogger.exceptions.NoTaskIdException;
@@ -175,4 +178,112 @@ public class WorkDayTest {
         workday.addTask(task2);
     }
     
+    @Test
+    public void testModifiedTaskTimeFreesOverlap() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException{
+        Task task1 = new Task("1111", "1st task", "7:30", "8:45");
+        Task task2 = new Task("2222", "2nd task", "8:30", "9:45");
+        WorkDay workday = new WorkDay();
+        workday.addTask(task1);
+        task1.setEndTime("8:30");
+        workday.addTask(task2);
+        assertEquals(2, workday.getTasks().size());
+    }
+    
+    @Test
+    public void testDeletedTaskFreesOverlap() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException{
+        Task task1 = new Task("1111", "1st task", "7:30", "8:45");
+        Task task2 = new Task("2222", "2nd task", "8:30", "9:45");
+        WorkDay workday = new WorkDay();
+        workday.addTask(task1);
+        workday.deleteTask(task1);
+        workday.addTask(task2);
+        assertEquals(1, workday.getTasks().size());
+    }
+    
+    @Test
+    public void testAddTasksInBatch() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException, InvalidTaskBatchException{
+        Task task1 = new Task("1111", "1st task", "7:30", "8:45");
+        Task task2 = new Task("2222", "2nd task", "10:00", "11:00");
+        Task task3 = new Task("3333", "3rd task", "8:45", "10:00");
+        WorkDay workday = new WorkDay();
+        workday.addTask(task1);
+        workday.addTasks(List.of(task2, task3));
+        assertEquals(3, workday.getTasks().size());
+        assertEquals(210, workday.getSumPerDay());
+    }
+    
+    @Test
+    public void testAddTasksInBatchReportsEveryInvalidTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException{
+        Task task1 = new Task("1111", "1st task", "7:30", "8:45");
+        Task task2 = new Task("2222", "overlaps 1st", "8:30", "9:00");
+        Task task3 = new Task("3333", "valid", "9:00", "10:00");
+        Task task4 = new Task("4444", "overlaps 3rd", "9:45", "10:15");
+        Task task5 = new Task("5555");
+        WorkDay workday = new WorkDay();
+        workday.addTask(task1);
+        try {
+            workday.addTasks(List.of(task4, task3, task2, task5));
+            fail("Expected InvalidTaskBatchException");
+        } catch (InvalidTaskBatchException ex) {
+            assertEquals(Set.of(task2, task4, task5), ex.getRejectedTasks().keySet());
+            assertTrue(ex.getRejectedTasks().get(task4) instanceof NotSeparatedTimesException);
+            assertTrue(ex.getRejectedTasks().get(task5) instanceof EmptyTimeFieldException);
+        }
+        assertEquals(1, workday.getTasks().size());
+        assertEquals(75, workday.getSumPerDay());
+    }
+    
+    @Test
+    public void testTryAddTaskReturnsResultInsteadOfThrowing() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException{
+        Task task1 = new Task("1111", "1st task", "7:30", "8:45");
+        Task task2 = new Task("2222", "2nd task", "8:30", "9:45");
+        Task task3 = new Task("3333");
+        WorkDay workday = new WorkDay();
+        assertEquals(ValidationResult.OK, workday.tryAddTask(task1));
+        assertEquals(ValidationResult.NOT_SEPARATED_TIMES, workday.tryAddTask(task2));
+        assertEquals(ValidationResult.EMPTY_TIME_FIELD, workday.tryAddTask(task3));
+        assertEquals(1, workday.getTasks().size());
+        assertEquals(75, workday.getSumPerDay());
+    }
+    
+    @Test
+    public void testValidateRequiredMinPerDay(){
+        assertEquals(ValidationResult.OK, WorkDay.validateRequiredMinPerDay(0));
+        assertEquals(ValidationResult.NEGATIVE_MINUTES_OF_WORK, WorkDay.validateRequiredMinPerDay(-1));
+    }
+    
+    @Test
+    public void testTasksInStartOrder() throws Exception {
+        WorkDay workday = new WorkDay();
+        Task first = new Task("1111", null, "7:30", "8:00");
+        Task second = new Task("2222", null, "8:00", "8:30");
+        Task early = new Task("3333", null, "6:00", "6:30");
+        workday.addTask(first);
+        workday.addTask(second);
+        assertSame(workday.getTaskList(), workday.getTasksInStartOrder());
+        
+        workday.addTask(early);
+        assertEquals(List.of(early, first, second), workday.getTasksInStartOrder());
+        assertEquals(List.of(first, second, early), workday.getTaskList());
+        
+        workday.deleteTask(early);
+        assertSame(workday.getTaskList(), workday.getTasksInStartOrder());
+        second.setStartTime("7:00");
+        assertEquals(List.of(second, first), workday.getTasksInStartOrder());
+    }
+    
+    @Test
+    public void testChangedTaskTimesAreIndexed() throws Exception {
+        WorkDay workday = new WorkDay();
+        Task task = new Task("1111", "1st task", "7:30", "8:45");
+        workday.addTask(task);
+        task.setComment("changed");
+        task.setTaskId("2222");
+        assertEquals(ValidationResult.NOT_SEPARATED_TIMES, workday.validateTask(new Task("3333", null, "8:00", "8:15")));
+        task.setEndTime("11:00");
+        task.setStartTime("10:00");
+        assertEquals(ValidationResult.OK, workday.validateTask(new Task("3333", null, "8:00", "8:15")));
+        assertEquals(ValidationResult.NOT_SEPARATED_TIMES, workday.validateTask(new Task("3333", null, "10:30", "10:45")));
+    }
+    
 }
@@ -1,5 +1,7 @@
 package timelogger;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -8,6 +10,7 @@ import org.junit.Test;
 import static org.junit.Assert.*;
 import timelogger.exceptions.EmptyTimeFieldException;
 import timelogger.exceptions.InvalidTaskIdException;
+import timelogger.exceptions.InvalidWorkDayBatchException;
 import timelogger.exceptions.NegativeMinutesOfWorkException;
 import timelogger.exceptions.NoTaskIdException;
 import timelogger.exceptions.NotExpectedTimeOrderException;
@@ -180,4 +183,248 @@ public class WorkMonthTest {
         workmonth.getExtraMinPerMonth();
     }
   
+    @Test
+    public void testGetDayByDayOfMonth() throws WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        WorkDay workday = new WorkDay(2016, 9, 9);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDay(workday);
+        
+        assertSame(workday, workmonth.getDay(9));
+        assertTrue(workmonth.containsDay(9));
+        assertFalse(workmonth.containsDay(1));
+        assertNull(workmonth.getDay(1));
+    }
+    
+    @Test
+    public void testGetDaysInDateOrder() throws WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        WorkDay workday1 = new WorkDay(2016, 9, 9);
+        WorkDay workday2 = new WorkDay(2016, 9, 1);
+        WorkDay workday3 = new WorkDay(2016, 9, 30);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDay(workday1);
+        workmonth.addWorkDay(workday2);
+        workmonth.addWorkDay(workday3);
+        
+        assertEquals(3, workmonth.getDays().size());
+        assertSame(workday2, workmonth.getDays().get(0));
+        assertSame(workday1, workmonth.getDays().get(1));
+        assertSame(workday3, workmonth.getDays().get(2));
+        assertEquals(List.of(workday2, workday1, workday3), 
+                new ArrayList<>(workmonth.getDays()));
+    }
+  
+    @Test
+    public void testSumsFollowTaskChanges() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, NotSeparatedTimesException, WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        Task task1 = new Task("1234", "task 1", "7:30", "8:45");
+        Task task2 = new Task("4321", "task 2", "9:00", "10:00");
+        WorkDay workday = new WorkDay(2016, 9, 1);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workday.addTask(task1);
+        workmonth.addWorkDay(workday);
+        workday.addTask(task2);
+        assertEquals(135, workmonth.getSumPerMonth());
+        
+        task2.setEndTime("11:00");
+        assertEquals(195, workday.getSumPerDay());
+        assertEquals(195, workmonth.getSumPerMonth());
+        
+        workday.deleteTask(task1);
+        assertEquals(120, workday.getSumPerDay());
+        assertEquals(120, workmonth.getSumPerMonth());
+        assertEquals(-330, workmonth.getExtraMinPerMonth());
+    }
+    
+    @Test
+    public void testSumsFollowStartedTask() throws NotExpectedTimeOrderException, EmptyTimeFieldException, InvalidTaskIdException, NoTaskIdException, WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        Task task = new Task("1234");
+        WorkDay workday = new WorkDay(2016, 9, 1);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDay(workday);
+        workday.startTask(task, "8:00");
+        assertEquals(0, workmonth.getSumPerMonth());
+        
+        task.setEndTime("9:30");
+        assertEquals(90, workmonth.getSumPerMonth());
+    }
+    
+    @Test
+    public void testRequiredMinPerMonthFollowsDayChanges() throws NegativeMinutesOfWorkException, WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        WorkDay workday = new WorkDay(420, 2016, 9, 1);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDay(workday);
+        workday.setRequiredMinPerday(300);
+        assertEquals(300, workmonth.getRequiredMinPerMonth());
+    }
+  
+    @Test
+    public void testAddWorkDaysInBatch() throws InvalidWorkDayBatchException{
+        WorkDay workday1 = new WorkDay(2016, 9, 9);
+        WorkDay workday2 = new WorkDay(2016, 9, 1);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDays(List.of(workday1, workday2), false);
+        
+        assertEquals(List.of(workday2, workday1), new ArrayList<>(workmonth.getDays()));
+        assertEquals(900, workmonth.getRequiredMinPerMonth());
+    }
+    
+    @Test
+    public void testAddWorkDaysInBatchReportsEveryInvalidDay() throws WeekendNotEnabledException, NotNewDateException, NotTheSameMonthException{
+        WorkDay workday1 = new WorkDay(2016, 9, 1);
+        WorkDay duplicate = new WorkDay(2016, 9, 1);
+        WorkDay weekend = new WorkDay(2016, 9, 3);
+        WorkDay otherMonth = new WorkDay(2016, 8, 30);
+        WorkDay valid = new WorkDay(2016, 9, 2);
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        workmonth.addWorkDay(workday1);
+        try {
+            workmonth.addWorkDays(List.of(duplicate, weekend, otherMonth, valid), false);
+            fail("Expected InvalidWorkDayBatchException");
+        } catch (InvalidWorkDayBatchException ex) {
+            assertEquals(3, ex.getRejectedDays().size());
+            assertTrue(ex.getRejectedDays().get(duplicate) instanceof NotNewDateException);
+            assertTrue(ex.getRejectedDays().get(weekend) instanceof WeekendNotEnabledException);
+            assertTrue(ex.getRejectedDays().get(otherMonth) instanceof NotTheSameMonthException);
+        }
+        assertEquals(1, workmonth.getDays().size());
+    }
+  
+    @Test
+    public void testTryAddWorkDayReturnsResultInsteadOfThrowing(){
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        assertEquals(ValidationResult.OK, workmonth.tryAddWorkDay(new WorkDay(2016, 9, 1), false));
+        assertEquals(ValidationResult.NOT_NEW_DATE, workmonth.tryAddWorkDay(new WorkDay(2016, 9, 1), false));
+        assertEquals(ValidationResult.WEEKEND_NOT_ENABLED, workmonth.tryAddWorkDay(new WorkDay(2016, 9, 3), false));
+        assertEquals(ValidationResult.OK, workmonth.tryAddWorkDay(new WorkDay(2016, 9, 3), true));
+        assertEquals(ValidationResult.NOT_THE_SAME_MONTH, workmonth.tryAddWorkDay(new WorkDay(2016, 8, 30), false));
+        assertEquals(2, workmonth.getDays().size());
+    }
+
+    @Test
+    public void testDayOfAnotherYearIsRejected() throws Exception {
+        WorkMonth workmonth = new WorkMonth(2016, 4);
+        workmonth.addWorkDay(new WorkDay(2016, 4, 4));
+        workmonth.addWorkDay(new WorkDay(2016, 4, 5));
+        assertTrue(workmonth.isNewDate(new WorkDay(2015, 4, 4)));
+        assertFalse(workmonth.isNewDate(new WorkDay(2016, 4, 4)));
+        assertEquals(ValidationResult.NOT_THE_SAME_MONTH, workmonth.tryAddWorkDay(new WorkDay(2015, 4, 4), true));
+        assertEquals(ValidationResult.NOT_THE_SAME_MONTH, workmonth.tryAddWorkDay(new WorkDay(2015, 4, 6), true));
+        try {
+            workmonth.addWorkDay(new WorkDay(2015, 4, 4), true);
+            fail("A day of another year was added.");
+        } catch (NotTheSameMonthException expected) {
+        }
+        assertEquals(2, workmonth.getDays().size());
+        assertEquals(2016, workmonth.getDays().get(0).getActualDay().getYear());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetActualDayOfDayInMonth() throws Exception {
+        WorkMonth workmonth = new WorkMonth(2016, 4);
+        WorkDay day = new WorkDay(2016, 4, 4);
+        workmonth.addWorkDay(day);
+        day.setActualDay(2016, 4, 5);
+    }
+
+    @Test
+    public void testSealKeepsDaysAndTasks() throws Exception {
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        WorkDay day = new WorkDay(420, 2016, 9, 2);
+        workmonth.addWorkDay(day);
+        day.addTask(new Task("LT-1234", "meeting", 7, 30, 8, 45));
+        day.addTask(new Task("0042", null, 9, 0, 9, 30));
+        day.getTasks().get(1).setTaskId("not valid");
+        workmonth.addWorkDay(new WorkDay(2016, 9, 5));
+        String tasksBefore = day.getTasks().toString();
+
+        workmonth.seal();
+
+        assertTrue(workmonth.isSealed());
+        assertEquals(105, workmonth.getSumPerMonth());
+        assertEquals(870, workmonth.getRequiredMinPerMonth());
+        assertEquals(105, workmonth.getSumPerDay(2));
+        assertEquals(-315, workmonth.getExtraMinPerDay(2));
+        assertEquals(0, workmonth.getSumPerDay(3));
+        assertEquals(2, workmonth.getDays().size());
+        assertFalse(workmonth.containsDay(3));
+        WorkDay sealedDay = workmonth.getDay(2);
+        assertEquals(tasksBefore, sealedDay.getTasks().toString());
+        assertEquals(105, sealedDay.getSumPerDay());
+        assertEquals(420, sealedDay.getRequiredMinPerday());
+        assertEquals(5, workmonth.getDays().get(1).getActualDay().getDayOfMonth());
+        assertSame(sealedDay, workmonth.getDay(2));
+    }
+
+    @Test
+    public void testSealedMonthsUseLessHeap() throws Exception {
+        createMonths(1).forEach(WorkMonth::seal);
+        long baseline = usedHeap();
+        List<WorkMonth> months = createMonths(120);
+        long openHeap = usedHeap() - baseline;
+        months.forEach(WorkMonth::seal);
+        long sealedHeap = usedHeap() - baseline;
+        
+        assertEquals(120, months.size());
+        assertTrue("open: " + openHeap + " sealed: " + sealedHeap, sealedHeap * 2 < openHeap);
+    }
+
+    private static List<WorkMonth> createMonths(int count) throws Exception {
+        List<WorkMonth> months = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WorkMonth month = new WorkMonth(2000 + i / 12, i % 12 + 1);
+            for (int dayOfMonth = 1; dayOfMonth <= 20; dayOfMonth++) {
+                WorkDay day = new WorkDay(month.getDate().getYear(), month.getDate().getMonthValue(), dayOfMonth);
+                month.addWorkDay(day, true);
+                for (int hour = 0; hour < 8; hour++) {
+                    day.addTask(new Task("LT-" + (1000 + hour), "task " + hour, hour, 0, hour, 45));
+                }
+            }
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(20);
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    @Test
+    public void testSealedMonthCannotBeChanged() throws Exception {
+        WorkMonth workmonth = new WorkMonth(2016, 9);
+        WorkDay day = new WorkDay(2016, 9, 2);
+        workmonth.addWorkDay(day);
+        Task task = new Task("LT-1234", null, 7, 30, 8, 45);
+        day.addTask(task);
+        Task otherTask = new Task("LT-0001", null, 9, 0, 9, 30);
+        workmonth.seal();
+
+        assertEquals(ValidationResult.SEALED, workmonth.tryAddWorkDay(new WorkDay(2016, 9, 1), false));
+        assertEquals(ValidationResult.SEALED, workmonth.getDay(2).tryAddTask(otherTask));
+        assertEquals(ValidationResult.SEALED, day.tryAddTask(otherTask));
+        try {
+            workmonth.addWorkDay(new WorkDay(2016, 9, 1), false);
+            fail("A day was added to a sealed month.");
+        } catch (IllegalStateException expected) {
+        }
+        List<Runnable> changes = new ArrayList<>();
+        changes.add(() -> day.deleteTask(task));
+        changes.add(() -> task.setComment("changed"));
+        changes.add(() -> workmonth.getDay(2).getTasks().get(0).setTaskId("LT-0002"));
+        for (Runnable change : changes) {
+            try {
+                change.run();
+                fail("A sealed month was changed.");
+            } catch (IllegalStateException expected) {
+            }
+        }
+        assertEquals(75, workmonth.getSumPerMonth());
+        assertEquals("LT-1234", workmonth.getDay(2).getTasks().get(0).getTaskId());
+    }
+  
 }